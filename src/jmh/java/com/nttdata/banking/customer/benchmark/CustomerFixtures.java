@@ -0,0 +1,83 @@
+package com.nttdata.banking.customer.benchmark;
+
+import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.models.entity.Customer;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Representative payloads shared by the benchmarks.
+ */
+final class CustomerFixtures {
+
+    static final String CUSTOMER_ID = "65f1c2a9e4b0a1b2c3d4e5f6";
+
+    private CustomerFixtures() {
+    }
+
+    static CustomerRequestDTO personalRequest() {
+        return CustomerRequestDTO.builder()
+                .customerType(Set.of(CustomerType.PERSONAL))
+                .firstName("Maria")
+                .lastName("Quispe")
+                .documentType(DocumentType.DNI)
+                .documentNumber("45678912")
+                .phoneNumber("+51987654321")
+                .email("maria.quispe@example.com")
+                .address("Av. Arequipa 1234, Lima")
+                .build();
+    }
+
+    static CustomerRequestDTO businessRequest() {
+        return CustomerRequestDTO.builder()
+                .customerType(Set.of(CustomerType.PERSONAL, CustomerType.BUSINESS))
+                .firstName("Jorge")
+                .lastName("Ramirez")
+                .documentType(DocumentType.FOREIGNER_CARD)
+                .documentNumber("CE1234567")
+                .companyName("Ramirez Importaciones SAC")
+                .ruc("20123456789")
+                .phoneNumber("+51912345678")
+                .email("contacto@ramirez.example.com")
+                .address("Jr. de la Union 456, Lima")
+                .build();
+    }
+
+    /**
+     * Breaks every business rule at once, which is the worst case for the validator.
+     */
+    static CustomerRequestDTO invalidRequest() {
+        return CustomerRequestDTO.builder()
+                .customerType(Set.of(CustomerType.PERSONAL, CustomerType.BUSINESS))
+                .firstName(" ")
+                .documentType(DocumentType.DNI)
+                .documentNumber("4567891X")
+                .ruc("2012345678")
+                .phoneNumber("+51912345678")
+                .email("invalid@example.com")
+                .address("Jr. de la Union 456, Lima")
+                .build();
+    }
+
+    static Customer customer() {
+        LocalDateTime now = LocalDateTime.now();
+        return Customer.builder()
+                .id(CUSTOMER_ID)
+                .customerType(Set.of(CustomerType.PERSONAL))
+                .firstName("Maria")
+                .lastName("Quispe")
+                .documentType(DocumentType.DNI)
+                .documentNumber("45678912")
+                .phoneNumber("+51987654321")
+                .email("maria.quispe@example.com")
+                .address("Av. Arequipa 1234, Lima")
+                .createdAt(now)
+                .updatedAt(now)
+                .active(true)
+                .version(3L)
+                .build();
+    }
+}
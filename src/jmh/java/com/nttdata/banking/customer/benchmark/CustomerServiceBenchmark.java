@@ -0,0 +1,114 @@
+package com.nttdata.banking.customer.benchmark;
+
+import com.nttdata.banking.customer.cache.CustomerCache;
+import com.nttdata.banking.customer.cache.CustomerUniqueKeyFilter;
+import com.nttdata.banking.customer.config.CustomerIndexMigration;
+import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.dto.response.CustomerResponseDTO;
+import com.nttdata.banking.customer.mapper.CustomerMapper;
+import com.nttdata.banking.customer.mapper.CustomerMapperImpl;
+import com.nttdata.banking.customer.observability.CustomerMetrics;
+import com.nttdata.banking.customer.repositories.CoalescingCustomerReader;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import com.nttdata.banking.customer.services.impl.CustomerBatchWriter;
+import com.nttdata.banking.customer.services.impl.CustomerChangeFeed;
+import com.nttdata.banking.customer.services.impl.CustomerLookup;
+import com.nttdata.banking.customer.services.impl.CustomerSearch;
+import com.nttdata.banking.customer.services.impl.CustomerServiceImpl;
+import com.nttdata.banking.customer.stats.CustomerStatistics;
+import com.nttdata.banking.customer.utils.CustomerValidator;
+import com.nttdata.banking.customer.utils.DocumentValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls, from request DTO to response DTO, against {@link StubCustomerRepository}.
+ * The stub completes synchronously, so {@code block()} never parks the benchmark thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerServiceBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private CustomerCache customerCache;
+    private CustomerServiceImpl customerService;
+    private CustomerRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CustomerRepository customerRepository = StubCustomerRepository.create();
+        // The unique indexes are reported as present, so the filter answers as it does in production
+        CustomerIndexMigration indexMigration = new CustomerIndexMigration(null, false, Duration.ZERO) {
+            @Override
+            public boolean hasUniqueIndex(Class<?> entityType, String field) {
+                return true;
+            }
+        };
+        CustomerUniqueKeyFilter uniqueKeyFilter = new CustomerUniqueKeyFilter(customerRepository, indexMigration, meterRegistry,
+                true, DataSize.ofMegabytes(8), 3_000_000, 1000);
+        uniqueKeyFilter.load();
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        customerCache = new CustomerCache(meterRegistry, 10_000, Duration.ofMinutes(5));
+        CustomerMapper customerMapper = new CustomerMapperImpl();
+        CustomerValidator customerValidator = new CustomerValidator(new DocumentValidator());
+        CustomerMetrics customerMetrics = new CustomerMetrics(meterRegistry);
+        CustomerStatistics customerStatistics = new CustomerStatistics(customerRepository, meterRegistry);
+        customerService = new CustomerServiceImpl(customerRepository, customerMapper, customerValidator,
+                customerCache, uniqueKeyFilter, customerMetrics, customerStatistics,
+                new CoalescingCustomerReader(customerRepository, meterRegistry, 10_000),
+                new CustomerSearch(customerRepository, customerMapper),
+                new CustomerLookup(customerRepository, customerMapper),
+                new CustomerBatchWriter(customerRepository, customerMapper, customerValidator, validatorFactory.getValidator(),
+                        uniqueKeyFilter, customerMetrics, customerStatistics),
+                new CustomerChangeFeed(customerRepository, customerMapper));
+        request = CustomerFixtures.personalRequest();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public CustomerResponseDTO create() {
+        return customerService.create(request).block();
+    }
+
+    @Benchmark
+    public CustomerResponseDTO update() {
+        return customerService.update(CustomerFixtures.CUSTOMER_ID, request).block();
+    }
+
+    @Benchmark
+    public CustomerResponseDTO findByIdCached() {
+        return customerService.findById(CustomerFixtures.CUSTOMER_ID).block();
+    }
+
+    @Benchmark
+    public CustomerResponseDTO findByIdUncached() {
+        customerCache.invalidate(CustomerFixtures.CUSTOMER_ID);
+        return customerService.findById(CustomerFixtures.CUSTOMER_ID).block();
+    }
+}
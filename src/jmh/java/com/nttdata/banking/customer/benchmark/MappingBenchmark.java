@@ -0,0 +1,86 @@
+package com.nttdata.banking.customer.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.dto.response.CustomerResponseDTO;
+import com.nttdata.banking.customer.mapper.CustomerMapper;
+import com.nttdata.banking.customer.mapper.CustomerMapperImpl;
+import com.nttdata.banking.customer.models.entity.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions and the JSON encoding of the request and response bodies. The object
+ * mapper is built with the same builder Spring Boot uses, so modules and date handling match the
+ * running service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    private CustomerMapper customerMapper;
+    private ObjectWriter responseWriter;
+    private ObjectReader requestReader;
+    private CustomerRequestDTO request;
+    private Customer customer;
+    private CustomerResponseDTO response;
+    private String requestJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        customerMapper = new CustomerMapperImpl();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responseWriter = objectMapper.writerFor(CustomerResponseDTO.class);
+        requestReader = objectMapper.readerFor(CustomerRequestDTO.class);
+
+        request = CustomerFixtures.businessRequest();
+        customer = CustomerFixtures.customer();
+        response = customerMapper.toResponseDto(customer);
+        requestJson = objectMapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public Customer toEntity() {
+        return customerMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public CustomerResponseDTO toResponseDto() {
+        return customerMapper.toResponseDto(customer);
+    }
+
+    @Benchmark
+    public Customer updateEntityFromDto() {
+        Customer target = CustomerFixtures.customer();
+        customerMapper.updateEntityFromDto(request, target);
+        return target;
+    }
+
+    @Benchmark
+    public String serializeResponse() throws JsonProcessingException {
+        return responseWriter.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public CustomerRequestDTO deserializeRequest() throws JsonProcessingException {
+        return requestReader.readValue(requestJson);
+    }
+}
@@ -0,0 +1,64 @@
+package com.nttdata.banking.customer.benchmark;
+
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import org.bson.types.ObjectId;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * In-memory stand-in for {@link CustomerRepository} that completes synchronously, so the service
+ * benchmarks measure the Reactor operator chains rather than Mongo. Reads return a fresh copy of
+ * the fixture customer, as the driver would decode a new document, and writes echo their input.
+ */
+final class StubCustomerRepository implements InvocationHandler {
+
+    private StubCustomerRepository() {
+    }
+
+    static CustomerRepository create() {
+        return (CustomerRepository) Proxy.newProxyInstance(CustomerRepository.class.getClassLoader(),
+                new Class<?>[]{CustomerRepository.class}, new StubCustomerRepository());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "findById", "findByEmail", "findByDocumentNumber":
+                return Mono.just(CustomerFixtures.customer());
+            case "save":
+                return Mono.just(assignId((Customer) args[0]));
+            case "replaceVersioned":
+                return Mono.just(args[0]);
+            case "toString":
+                return StubCustomerRepository.class.getSimpleName();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                break;
+        }
+        if (Mono.class.equals(method.getReturnType())) {
+            return Mono.empty();
+        }
+        if (Flux.class.equals(method.getReturnType())) {
+            return Flux.empty();
+        }
+        throw new UnsupportedOperationException("Not stubbed: " + method);
+    }
+
+    private static Customer assignId(Customer customer) {
+        if (customer.getId() == null) {
+            customer.setId(new ObjectId().toHexString());
+        }
+        if (customer.getVersion() == null) {
+            customer.setVersion(0L);
+        }
+        return customer;
+    }
+}
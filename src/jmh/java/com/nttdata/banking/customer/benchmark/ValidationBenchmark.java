@@ -0,0 +1,82 @@
+package com.nttdata.banking.customer.benchmark;
+
+import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.exception.InvalidDocumentException;
+import com.nttdata.banking.customer.utils.CustomerValidator;
+import com.nttdata.banking.customer.utils.DocumentValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"DNI", "FOREIGNER_CARD"})
+    private DocumentType documentType;
+
+    private String documentNumber;
+    private CustomerValidator customerValidator;
+    private CustomerRequestDTO personalRequest;
+    private CustomerRequestDTO businessRequest;
+    private CustomerRequestDTO invalidRequest;
+
+    @Setup
+    public void setUp() {
+        customerValidator = new CustomerValidator(new DocumentValidator());
+        personalRequest = CustomerFixtures.personalRequest();
+        businessRequest = CustomerFixtures.businessRequest();
+        invalidRequest = CustomerFixtures.invalidRequest();
+        documentNumber = documentType == DocumentType.DNI ? "45678912" : "CE1234567";
+    }
+
+    @Benchmark
+    public CustomerRequestDTO validatePersonalRequest() {
+        customerValidator.validateCustomerRequest(personalRequest);
+        return personalRequest;
+    }
+
+    @Benchmark
+    public CustomerRequestDTO validateBusinessRequest() {
+        customerValidator.validateCustomerRequest(businessRequest);
+        return businessRequest;
+    }
+
+    @Benchmark
+    public Object validateInvalidRequest() {
+        try {
+            customerValidator.validateCustomerRequest(invalidRequest);
+            return invalidRequest;
+        } catch (InvalidDocumentException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public boolean documentFormat() {
+        return documentType.isValidFormat(documentNumber);
+    }
+
+    /**
+     * The regular expression the format check replaces, kept as a reference point.
+     */
+    @Benchmark
+    public boolean documentFormatRegex() {
+        return documentNumber.matches(documentType.getPattern());
+    }
+}
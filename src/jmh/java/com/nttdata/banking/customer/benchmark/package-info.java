@@ -0,0 +1,9 @@
+/**
+ * JMH microbenchmarks of the per-request CPU path: validation, mapping, JSON and the service
+ * operator chains against an in-memory repository.
+ * <p>
+ * Run with {@code mvn -Pjmh verify}; {@code -Djmh.includes=<regex>} selects benchmarks. Results,
+ * including the allocation rate reported by the GC profiler ({@code gc.alloc.rate.norm}), are
+ * written to {@code target/jmh-result.json} so runs from different releases can be compared.
+ */
+package com.nttdata.banking.customer.benchmark;
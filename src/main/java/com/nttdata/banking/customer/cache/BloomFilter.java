@@ -0,0 +1,99 @@
+package com.nttdata.banking.customer.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe, fixed-size Bloom filter over string keys.
+ * <p>
+ * Each key is hashed once into two 64-bit values that are combined (Kirsch-Mitzenmacher double
+ * hashing) to derive the bit positions, so neither {@link #put} nor {@link #mightContain} allocates.
+ * A namespace character is folded into the hash so that, for example, an email and a RUC with
+ * the same text do not collide.
+ */
+final class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    BloomFilter(long bitCount, int hashFunctions) {
+        int wordCount = (int) Math.max(1, (bitCount + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Sizes a filter for the given number of keys within a memory budget, using the optimal
+     * number of hash functions {@code k = m / n * ln 2}.
+     */
+    static BloomFilter create(long memoryBudgetBytes, long expectedInsertions) {
+        long bits = Math.max(64, memoryBudgetBytes * 8);
+        int hashFunctions = (int) Math.round((double) bits / Math.max(1, expectedInsertions) * Math.log(2));
+        return new BloomFilter(bits, Math.max(1, Math.min(16, hashFunctions)));
+    }
+
+    void put(char namespace, String key) {
+        long hash1 = hash(namespace, key);
+        long hash2 = mix(hash1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(char namespace, String key) {
+        long hash1 = hash(namespace, key);
+        long hash2 = mix(hash1 ^ 0x9e3779b97f4a7c15L);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Expected false positive probability after {@code insertions} keys: {@code (1 - e^(-k n / m))^k}.
+     */
+    double expectedFalsePositiveRate(long insertions) {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * insertions / bitCount), hashFunctions);
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private static long hash(char namespace, String key) {
+        long hash = (FNV_OFFSET_BASIS ^ namespace) * FNV_PRIME;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer, spreads FNV's weak low bits over the whole word.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
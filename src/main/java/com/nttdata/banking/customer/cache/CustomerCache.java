@@ -0,0 +1,217 @@
+package com.nttdata.banking.customer.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.nttdata.banking.customer.models.entity.Customer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache of customers.
+ * <p>
+ * Entries are stored once, keyed by id, and reachable through secondary indexes on email and
+ * document number. A secondary hit is only trusted when the cached customer still carries that
+ * key, so a stale index entry degrades to a miss instead of returning the wrong customer.
+ * <p>
+ * Loads by id go through the {@link AsyncCache}, which drops a load that is invalidated while in
+ * flight. Loads by a secondary key happen outside of it, so every invalidation is numbered and a
+ * secondary load is only cached when its customer was not invalidated after the load started.
+ * <p>
+ * Writes made by this instance invalidate their customer directly. Writes made by other instances
+ * reach the cache through {@link CustomerCacheInvalidator}, so an entry is stale for about the lag of
+ * the change stream; while the stream is down, for at most {@code ttl}.
+ */
+@Component
+@Slf4j
+public class CustomerCache {
+
+    /**
+     * Longer than any repository call may take; a secondary load running for longer is not cached.
+     */
+    private static final Duration LOAD_WINDOW = Duration.ofSeconds(30);
+
+    private final AsyncCache<String, Customer> customersById;
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile long allInvalidated;
+    private final Cache<String, Long> invalidatedIds = Caffeine.newBuilder()
+            .expireAfterWrite(LOAD_WINDOW)
+            .build();
+    private final ConcurrentMap<String, String> idsByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> idsByDocumentNumber = new ConcurrentHashMap<>();
+    private final Counter secondaryHits;
+    private final Counter secondaryMisses;
+
+    public CustomerCache(MeterRegistry meterRegistry,
+                         @Value("${nttdata.customer.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${nttdata.customer.cache.ttl:PT1M}") Duration ttl) {
+        this.customersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .removalListener((String id, Customer customer, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        unindex(id, customer);
+                    }
+                })
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, customersById.synchronous(), "customers");
+        this.secondaryHits = Counter.builder("customer.cache.secondary.lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.secondaryMisses = Counter.builder("customer.cache.secondary.lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached customer or loads it once, even when several callers miss concurrently.
+     */
+    public Mono<Customer> getById(String id, Function<String, Mono<Customer>> loader) {
+        return Mono.fromFuture(() -> customersById.get(id, (key, executor) -> loader.apply(key)
+                        .doOnNext(this::index)
+                        .toFuture()), true);
+    }
+
+    public Mono<Customer> getByEmail(String email, Function<String, Mono<Customer>> loader) {
+        return getBySecondaryKey(idsByEmail, email, Customer::getEmail, loader);
+    }
+
+    public Mono<Customer> getByDocumentNumber(String documentNumber, Function<String, Mono<Customer>> loader) {
+        return getBySecondaryKey(idsByDocumentNumber, documentNumber, Customer::getDocumentNumber, loader);
+    }
+
+    /**
+     * @return the cached customer, or {@code null} when it is not cached or still loading
+     */
+    public Customer getIfPresent(String id) {
+        return completedValue(customersById.getIfPresent(id));
+    }
+
+    public Customer getIfPresentByEmail(String email) {
+        return getIfPresentBySecondaryKey(idsByEmail, email, Customer::getEmail);
+    }
+
+    public Customer getIfPresentByDocumentNumber(String documentNumber) {
+        return getIfPresentBySecondaryKey(idsByDocumentNumber, documentNumber, Customer::getDocumentNumber);
+    }
+
+    /**
+     * Drops the customer and its secondary keys; must be called after every write to that customer.
+     */
+    public void invalidate(String id) {
+        // Recorded before the entry is removed, see putUnlessInvalidated
+        invalidatedIds.put(id, invalidations.incrementAndGet());
+        CompletableFuture<Customer> removed = customersById.asMap().remove(id);
+        if (removed != null && removed.isDone() && !removed.isCompletedExceptionally()) {
+            unindex(id, removed.getNow(null));
+        }
+        log.debug("Customer cache entry invalidated: {}", id);
+    }
+
+    /**
+     * Drops every customer, for when changes may have been missed.
+     */
+    public void invalidateAll() {
+        // Recorded before the entries are removed, see putUnlessInvalidated
+        allInvalidated = invalidations.incrementAndGet();
+        customersById.synchronous().invalidateAll();
+        log.debug("Customer cache invalidated");
+    }
+
+    private Mono<Customer> getBySecondaryKey(ConcurrentMap<String, String> index, String key,
+                                             Function<Customer, String> keyOf,
+                                             Function<String, Mono<Customer>> loader) {
+        return Mono.defer(() -> {
+            String id = index.get(key);
+            CompletableFuture<Customer> cached = id != null ? customersById.getIfPresent(id) : null;
+            Mono<Customer> load = Mono.defer(() -> {
+                secondaryMisses.increment();
+                long startedAfter = invalidations.get();
+                long startNanos = System.nanoTime();
+                return loader.apply(key).doOnNext(customer -> putUnlessInvalidated(customer, startedAfter, startNanos));
+            });
+
+            if (cached == null) {
+                return load;
+            }
+            return Mono.fromFuture(cached, true)
+                    .filter(customer -> key.equals(keyOf.apply(customer)))
+                    .doOnNext(customer -> secondaryHits.increment())
+                    .switchIfEmpty(load);
+        });
+    }
+
+    private Customer getIfPresentBySecondaryKey(ConcurrentMap<String, String> index, String key,
+                                                Function<Customer, String> keyOf) {
+        String id = index.get(key);
+        Customer customer = id != null ? getIfPresent(id) : null;
+        return customer != null && key.equals(keyOf.apply(customer)) ? customer : null;
+    }
+
+    private static Customer completedValue(CompletableFuture<Customer> future) {
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+    }
+
+    /**
+     * Caches a customer loaded by a secondary key, unless it was invalidated since the load started.
+     * The check is repeated after the put: an invalidation that slipped in between either is seen
+     * then, or records itself before removing the entry just put.
+     */
+    private void putUnlessInvalidated(Customer customer, long startedAfter, long startNanos) {
+        String id = customer.getId();
+        if (System.nanoTime() - startNanos > LOAD_WINDOW.toNanos() || invalidatedSince(id, startedAfter)) {
+            return;
+        }
+        CompletableFuture<Customer> entry = CompletableFuture.completedFuture(customer);
+        customersById.put(id, entry);
+        if (invalidatedSince(id, startedAfter)) {
+            customersById.asMap().remove(id, entry);
+            return;
+        }
+        index(customer);
+    }
+
+    private boolean invalidatedSince(String id, long startedAfter) {
+        if (allInvalidated > startedAfter) {
+            return true;
+        }
+        Long invalidation = invalidatedIds.getIfPresent(id);
+        return invalidation != null && invalidation > startedAfter;
+    }
+
+    private void index(Customer customer) {
+        if (customer.getEmail() != null) {
+            idsByEmail.put(customer.getEmail(), customer.getId());
+        }
+        if (customer.getDocumentNumber() != null) {
+            idsByDocumentNumber.put(customer.getDocumentNumber(), customer.getId());
+        }
+    }
+
+    private void unindex(String id, Customer customer) {
+        if (customer == null) {
+            return;
+        }
+        if (customer.getEmail() != null) {
+            idsByEmail.remove(customer.getEmail(), id);
+        }
+        if (customer.getDocumentNumber() != null) {
+            idsByDocumentNumber.remove(customer.getDocumentNumber(), id);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.nttdata.banking.customer.cache;
+
+import com.mongodb.MongoException;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Drops customers from {@link CustomerCache} when any instance changes them, by following the
+ * customers change stream.
+ * <p>
+ * When the stream fails it is reopened with backoff after the last event seen, so no change is
+ * missed. When there is no such event, or Mongo no longer has the history to resume from, the
+ * whole cache is dropped before the stream is opened again.
+ */
+@Component
+@Slf4j
+public class CustomerCacheInvalidator {
+
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final CustomerRepository customerRepository;
+    private final CustomerCache customerCache;
+    private final boolean enabled;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private volatile BsonValue resumeToken;
+    private volatile Disposable subscription;
+
+    public CustomerCacheInvalidator(CustomerRepository customerRepository, CustomerCache customerCache,
+                                    @Value("${nttdata.customer.cache.invalidation.enabled:true}") boolean enabled,
+                                    @Value("${nttdata.customer.cache.invalidation.min-backoff:PT1S}") Duration minBackoff,
+                                    @Value("${nttdata.customer.cache.invalidation.max-backoff:PT1M}") Duration maxBackoff) {
+        this.customerRepository = customerRepository;
+        this.customerCache = customerCache;
+        this.enabled = enabled;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Customer cache invalidation disabled, entries may be stale for the cache ttl");
+            return;
+        }
+        subscription = Flux.defer(() -> {
+                    BsonValue resumeAfter = resumeToken;
+                    if (resumeAfter == null) {
+                        customerCache.invalidateAll();
+                    }
+                    return customerRepository.watchChanges(Set.of(), null, resumeAfter);
+                })
+                .doOnError(error -> {
+                    log.warn("Customer cache invalidation stream failed, reopening: {}", error.getMessage());
+                    if (isHistoryLost(error)) {
+                        resumeToken = null;
+                    }
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, minBackoff).maxBackoff(maxBackoff))
+                .subscribe(this::invalidate);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private void invalidate(ChangeStreamEvent<Customer> event) {
+        String id = customerId(event);
+        if (id != null) {
+            customerCache.invalidate(id);
+        }
+        resumeToken = event.getResumeToken();
+    }
+
+    private static String customerId(ChangeStreamEvent<Customer> event) {
+        if (event.getBody() != null && event.getBody().getId() != null) {
+            return event.getBody().getId();
+        }
+        BsonValue documentKey = event.getRaw() != null && event.getRaw().getDocumentKey() != null
+                ? event.getRaw().getDocumentKey().get("_id")
+                : null;
+        return documentKey != null && documentKey.isObjectId() ? documentKey.asObjectId().getValue().toHexString() : null;
+    }
+
+    private static boolean isHistoryLost(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,165 @@
+package com.nttdata.banking.customer.cache;
+
+import com.nttdata.banking.customer.config.CustomerIndexMigration;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Probabilistic pre-check for the unique customer fields (email, document number and RUC).
+ * <p>
+ * A negative answer is definite, so creates for new customers skip the uniqueness query. The filter
+ * is built at startup by streaming the existing keys and is fed by every create and update handled
+ * by this instance. Bloom filters cannot forget keys, so deleted or replaced values stay as
+ * positives and simply fall back to Mongo. Keys written by other instances are unknown here,
+ * which is why the unique indexes on {@link Customer} remain the final safety net.
+ * <p>
+ * A field is therefore only answered from the filter when {@link CustomerIndexMigration} found or
+ * built its unique index. A field whose index is missing, for example because the collection still
+ * holds duplicates for it, always might exist and is checked by the query.
+ */
+@Component
+@Slf4j
+public class CustomerUniqueKeyFilter {
+
+    private static final char EMAIL = 'e';
+    private static final char DOCUMENT_NUMBER = 'd';
+    private static final char RUC = 'r';
+
+    private final CustomerRepository customerRepository;
+    private final CustomerIndexMigration indexMigration;
+    private final BloomFilter filter;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final AtomicLong insertions = new AtomicLong();
+    private final Counter skippedQueries;
+    private final Counter positives;
+    private final Counter falsePositives;
+    private volatile boolean ready;
+    private volatile boolean emailIndexed;
+    private volatile boolean documentNumberIndexed;
+    private volatile boolean rucIndexed;
+
+    public CustomerUniqueKeyFilter(CustomerRepository customerRepository,
+                                   CustomerIndexMigration indexMigration,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${nttdata.customer.unique-filter.enabled:true}") boolean enabled,
+                                   @Value("${nttdata.customer.unique-filter.memory-budget:8MB}") DataSize memoryBudget,
+                                   @Value("${nttdata.customer.unique-filter.expected-keys:3000000}") long expectedKeys,
+                                   @Value("${nttdata.customer.unique-filter.load-batch-size:1000}") int loadBatchSize) {
+        this.customerRepository = customerRepository;
+        this.indexMigration = indexMigration;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.filter = BloomFilter.create(enabled ? memoryBudget.toBytes() : 8, expectedKeys);
+
+        this.skippedQueries = Counter.builder("customer.unique.filter.checks")
+                .tag("result", "definitely-absent")
+                .register(meterRegistry);
+        this.positives = Counter.builder("customer.unique.filter.checks")
+                .tag("result", "maybe-present")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("customer.unique.filter.checks")
+                .tag("result", "false-positive")
+                .register(meterRegistry);
+        Gauge.builder("customer.unique.filter.expected.fpp", this, keyFilter -> keyFilter.filter.expectedFalsePositiveRate(keyFilter.insertions.get()))
+                .description("Expected false positive probability for the current number of keys")
+                .register(meterRegistry);
+        Gauge.builder("customer.unique.filter.keys", insertions, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs after the index migration, so the indexes it reports are known before the filter answers.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            log.info("Customer unique key filter disabled");
+            return;
+        }
+        emailIndexed = indexMigration.hasUniqueIndex(Customer.class, "email");
+        documentNumberIndexed = indexMigration.hasUniqueIndex(Customer.class, "documentNumber");
+        rucIndexed = indexMigration.hasUniqueIndex(Customer.class, "ruc");
+        if (!emailIndexed || !documentNumberIndexed || !rucIndexed) {
+            log.warn("Unique index missing, uniqueness is always queried for it; email: {}, documentNumber: {}, ruc: {}",
+                    emailIndexed, documentNumberIndexed, rucIndexed);
+        }
+        log.info("Loading customer unique key filter: {} bits, {} hash functions", filter.bitCount(), filter.hashFunctions());
+
+        customerRepository.streamUniqueKeys(loadBatchSize)
+                .doOnNext(this::add)
+                .count()
+                .subscribe(
+                        count -> {
+                            ready = true;
+                            log.info("Customer unique key filter loaded with {} customers", count);
+                        },
+                        error -> log.error("Error loading customer unique key filter, uniqueness checks will query Mongo: {}", error.getMessage()));
+    }
+
+    /**
+     * @return {@code false} only when none of the values can belong to an existing customer
+     */
+    public boolean mightExist(String email, String documentNumber, String ruc) {
+        if (!ready || (email != null && !emailIndexed) || (documentNumber != null && !documentNumberIndexed)
+                || (ruc != null && !rucIndexed)) {
+            return true;
+        }
+        boolean mightExist = (email != null && filter.mightContain(EMAIL, email))
+                || (documentNumber != null && filter.mightContain(DOCUMENT_NUMBER, documentNumber))
+                || (ruc != null && filter.mightContain(RUC, ruc));
+        (mightExist ? positives : skippedQueries).increment();
+        return mightExist;
+    }
+
+    public boolean mightExistEmail(String email) {
+        return !ready || !emailIndexed || filter.mightContain(EMAIL, email);
+    }
+
+    public boolean mightExistDocumentNumber(String documentNumber) {
+        return !ready || !documentNumberIndexed || filter.mightContain(DOCUMENT_NUMBER, documentNumber);
+    }
+
+    public boolean mightExistRuc(String ruc) {
+        return !ready || !rucIndexed || filter.mightContain(RUC, ruc);
+    }
+
+    /**
+     * Records that a positive answer of {@link #mightExist} was not confirmed by Mongo. The observed
+     * false positive rate is the {@code false-positive} count over the {@code maybe-present} count.
+     * Answers given without asking the filter, before it is loaded or while a unique index is missing,
+     * are in neither count.
+     */
+    public void recordFalsePositive() {
+        if (ready && emailIndexed && documentNumberIndexed && rucIndexed) {
+            falsePositives.increment();
+        }
+    }
+
+    public void add(Customer customer) {
+        if (!enabled) {
+            return;
+        }
+        put(EMAIL, customer.getEmail());
+        put(DOCUMENT_NUMBER, customer.getDocumentNumber());
+        put(RUC, customer.getRuc());
+    }
+
+    private void put(char namespace, String key) {
+        if (key != null) {
+            filter.put(namespace, key);
+            insertions.incrementAndGet();
+        }
+    }
+}
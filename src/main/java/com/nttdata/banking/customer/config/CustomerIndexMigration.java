@@ -0,0 +1,160 @@
+package com.nttdata.banking.customer.config;
+
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.models.entity.CustomerImport;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the indexes declared on the entities before the application takes traffic, replacing
+ * Spring Data's index auto-creation.
+ * <p>
+ * Indexes that already exist are left alone. A missing unique index is only built once the collection
+ * is known to hold no duplicates for its keys; otherwise it is skipped and the duplicates are reported,
+ * so data stored before the index existed does not stop the service from starting. Such a field is
+ * not protected by the database, which is why the unique indexes actually found or built are published
+ * through {@link #hasUniqueIndex}: checks that rely on the index to catch what they let through must
+ * query for that field when it is missing.
+ */
+@Component
+@Slf4j
+public class CustomerIndexMigration implements SmartInitializingSingleton {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Customer.class, CustomerImport.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final Set<String> uniqueIndexes = ConcurrentHashMap.newKeySet();
+
+    public CustomerIndexMigration(ReactiveMongoTemplate mongoTemplate,
+                                  @Value("${nttdata.customer.indexes.enabled:true}") boolean enabled,
+                                  @Value("${nttdata.customer.indexes.timeout:PT5M}") Duration timeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs once every singleton is created, which is before the web server starts and the instance
+     * registers with discovery, so no request can reach a query pinned to an index by a hint before
+     * that index exists.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            log.info("Index migration disabled, unique indexes are not confirmed");
+            return;
+        }
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+
+        try {
+            Long created = Flux.fromIterable(INDEXED_ENTITIES)
+                    .concatMap(type -> {
+                        String collection = mongoTemplate.getCollectionName(type);
+                        return mongoTemplate.indexOps(collection).getIndexInfo()
+                                .collectList()
+                                .flatMapMany(existing -> Flux.fromIterable(resolver.resolveIndexFor(type))
+                                        .concatMap(index -> ensureIndex(collection, index, existing)));
+                    })
+                    .count()
+                    .block(timeout);
+            log.info("Indexes checked, {} created, unique indexes in place: {}", created, uniqueIndexes);
+        } catch (RuntimeException ex) {
+            log.error("Error creating indexes: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * @return {@code true} when a unique index on exactly this field was found or built by the migration
+     */
+    public boolean hasUniqueIndex(Class<?> entityType, String field) {
+        return uniqueIndexes.contains(mongoTemplate.getCollectionName(entityType) + ":" + field);
+    }
+
+    private Mono<String> ensureIndex(String collection, IndexDefinition index, List<IndexInfo> existing) {
+        Document options = index.getIndexOptions();
+        String name = options.getString("name");
+        List<String> fields = List.copyOf(index.getIndexKeys().keySet());
+        boolean unique = Boolean.TRUE.equals(options.getBoolean("unique"));
+
+        IndexInfo current = existing.stream()
+                .filter(info -> info.getIndexFields().stream().map(IndexField::getKey).toList().equals(fields))
+                .findFirst()
+                .orElse(null);
+        if (current != null) {
+            if (unique && current.isUnique()) {
+                uniqueIndexes.add(collection + ":" + String.join(",", fields));
+            } else if (unique) {
+                log.error("Index {} on {} exists without the unique option, uniqueness is not enforced by Mongo",
+                        current.getName(), collection);
+            }
+            return Mono.empty();
+        }
+
+        // Duplicates are only counted for a unique index that is missing, as the scan reads the whole collection
+        Mono<Long> duplicates = unique
+                ? countDuplicates(collection, index.getIndexKeys(), Boolean.TRUE.equals(options.getBoolean("sparse")))
+                : Mono.just(0L);
+
+        return duplicates.flatMap(count -> {
+                    if (count > 0) {
+                        log.error("Unique index {} on {} not created: {} values are held by more than one document",
+                                name, collection, count);
+                        return Mono.empty();
+                    }
+                    return mongoTemplate.indexOps(collection).ensureIndex(index);
+                })
+                .doOnNext(created -> {
+                    if (unique) {
+                        uniqueIndexes.add(collection + ":" + String.join(",", fields));
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.error("Error creating index {} on {}: {}", name, collection, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * @return how many key values appear in more than one document
+     */
+    private Mono<Long> countDuplicates(String collection, Document keys, boolean sparse) {
+        String[] fields = keys.keySet().toArray(String[]::new);
+        List<AggregationOperation> pipeline = new ArrayList<>();
+        if (sparse) {
+            pipeline.add(Aggregation.match(new Criteria().orOperator(
+                    keys.keySet().stream().map(field -> Criteria.where(field).exists(true)).toList())));
+        }
+        pipeline.add(Aggregation.group(fields).count().as("count"));
+        pipeline.add(Aggregation.match(Criteria.where("count").gt(1)));
+        pipeline.add(Aggregation.count().as("duplicates"));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(pipeline)
+                                .withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                        collection, Document.class)
+                .next()
+                .map(result -> ((Number) result.get("duplicates")).longValue())
+                .defaultIfEmpty(0L);
+    }
+}
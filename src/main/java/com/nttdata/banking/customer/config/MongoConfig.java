@@ -0,0 +1,15 @@
+package com.nttdata.banking.customer.config;
+
+import com.nttdata.banking.customer.observability.MongoCommandProfiler;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandProfilerCustomizer(MongoCommandProfiler profiler) {
+        return settings -> settings.addCommandListener(profiler);
+    }
+}
@@ -1,32 +1,67 @@
 package com.nttdata.banking.customer.controllers;
 
+import com.nttdata.banking.customer.dto.request.CustomerBatchRequestDTO;
+import com.nttdata.banking.customer.dto.request.CustomerLookupRequestDTO;
+import com.nttdata.banking.customer.dto.request.CustomerPatchRequestDTO;
 import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.dto.response.CustomerBatchResponseDTO;
+import com.nttdata.banking.customer.dto.response.CustomerChangeEventDTO;
+import com.nttdata.banking.customer.dto.response.CustomerImportDTO;
+import com.nttdata.banking.customer.dto.response.CustomerLookupResultDTO;
+import com.nttdata.banking.customer.dto.response.CustomerPageResponseDTO;
 import com.nttdata.banking.customer.dto.response.CustomerResponseDTO;
+import com.nttdata.banking.customer.dto.response.CustomerRevisionDTO;
+import com.nttdata.banking.customer.dto.response.CustomerStatisticsDTO;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.enums.ImportFormat;
+import com.nttdata.banking.customer.exception.CustomerDomainException;
+import com.nttdata.banking.customer.services.CustomerImportService;
 import com.nttdata.banking.customer.services.CustomerService;
+import com.nttdata.banking.customer.utils.EntityTags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/api/v1/customers")
 @RequiredArgsConstructor
 @Slf4j
 public class CustomerController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
+
+    @Value("${nttdata.customer.changes.heartbeat:PT15S}")
+    private Duration changesHeartbeat;
 
     @PostMapping
     public Mono<ResponseEntity<CustomerResponseDTO>> addCustomer(@Valid @RequestBody CustomerRequestDTO requestDto) {
@@ -35,7 +70,65 @@ public class CustomerController {
         return customerService.create(requestDto)
                 .map(customer -> ResponseEntity.status(HttpStatus.CREATED).body(customer))
                 .doOnSuccess(response -> log.info("Customer created successfully"))
-                .doOnError(error -> log.error("Error creating customer: {}", error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error creating customer: {}", error.getMessage()));
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<CustomerBatchResponseDTO>> addCustomers(@Valid @RequestBody CustomerBatchRequestDTO requestDto) {
+        log.info("POST /api/customers/batch - Creating {} customers", requestDto.getCustomers().size());
+
+        return customerService.createBatch(requestDto.getCustomers())
+                .map(batch -> ResponseEntity.status(HttpStatus.MULTI_STATUS).body(batch))
+                .doOnSuccess(response -> log.info("Customer batch processed successfully"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error creating customer batch: {}", error.getMessage()));
+    }
+
+    /**
+     * Imports a CSV or NDJSON file as it is uploaded. The response streams one progress event per
+     * stored batch, with the lines rejected in it, and ends with the import status.
+     */
+    @PostMapping(value = "/imports", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerImportDTO> importCustomers(ServerWebExchange exchange) {
+        ImportFormat format = importFormat(exchange);
+        log.info("POST /api/customers/imports - Importing customers from {}", format);
+
+        return customerImportService.importCustomers(format, exchange.getRequest().getBody())
+                .doOnComplete(() -> log.info("Customer import stream completed"));
+    }
+
+    /**
+     * Resumes an interrupted import; the same file must be uploaded again.
+     */
+    @PostMapping(value = "/imports/{importId}", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerImportDTO> resumeImport(@PathVariable String importId, ServerWebExchange exchange) {
+        log.info("POST /api/customers/imports/{} - Resuming customer import", importId);
+
+        return customerImportService.resumeImport(importId, exchange.getRequest().getBody())
+                .doOnComplete(() -> log.info("Customer import stream completed: {}", importId));
+    }
+
+    @GetMapping("/imports/{importId}")
+    public Mono<ResponseEntity<CustomerImportDTO>> getImport(@PathVariable String importId) {
+        log.info("GET /api/customers/imports/{} - Retrieving customer import", importId);
+
+        return customerImportService.findImportById(importId)
+                .map(customerImport -> ResponseEntity.ok(customerImport))
+                .doOnSuccess(response -> log.info("Customer import retrieved successfully: {}", importId))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer import {}: {}", importId, error.getMessage()));
+    }
+
+    /**
+     * Resolves many ids, emails or document numbers in one call. Results are streamed in request
+     * order, one per distinct key, with {@code found=false} for the keys that matched no customer.
+     */
+    @PostMapping(value = "/lookup", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<CustomerLookupResultDTO> lookupCustomers(@Valid @RequestBody CustomerLookupRequestDTO requestDto) {
+        log.info("POST /api/customers/lookup - Looking up customers");
+
+        return customerService.lookup(requestDto)
+                .doOnComplete(() -> log.info("Customer lookup completed successfully"));
     }
 
     @GetMapping
@@ -51,14 +144,134 @@ public class CustomerController {
                 .doOnComplete(() -> log.info("Retrieved all customers successfully"));
     }
 
+    /**
+     * Same listing as {@link #getAll} for clients that ask for NDJSON: only the {@code Accept} header
+     * selects it, and {@code active} keeps its meaning of "active only when true".
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerResponseDTO> exportAll(@RequestParam(value = "active", required = false) Boolean activeOnly,
+                                               @RequestParam(value = "customerType", required = false) CustomerType customerType) {
+        log.info("GET /api/customers - Streaming customers as NDJSON, activeOnly: {}, customerType: {}", activeOnly, customerType);
+
+        return customerService.streamAll(Boolean.TRUE.equals(activeOnly) ? Boolean.TRUE : null, customerType)
+                .doOnComplete(() -> log.info("Streamed customers successfully"));
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<ResponseEntity<CustomerPageResponseDTO<CustomerResponseDTO>>> getPage(@RequestParam(value = "active", required = false) Boolean activeOnly,
+                                                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                                                 @RequestParam("limit") int limit) {
+        log.info("GET /api/customers - Retrieving customers page, activeOnly: {}, limit: {}", activeOnly, limit);
+
+        return customerService.findPage(activeOnly, cursor, limit)
+                .map(page -> ResponseEntity.ok(page))
+                .doOnSuccess(response -> log.info("Customers page retrieved successfully"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customers page: {}", error.getMessage()));
+    }
+
+    @GetMapping(params = {"fields", "!limit"})
+    public Flux<Map<String, Object>> getAllFields(@RequestParam(value = "active", required = false) Boolean activeOnly,
+                                                  @RequestParam("fields") String fields) {
+        log.info("GET /api/customers - Retrieving customer fields {}, activeOnly: {}", fields, activeOnly);
+
+        return customerService.findAllProjected(activeOnly, fields)
+                .doOnComplete(() -> log.info("Retrieved customer fields successfully"));
+    }
+
+    @GetMapping(params = {"fields", "limit"})
+    public Mono<ResponseEntity<CustomerPageResponseDTO<Map<String, Object>>>> getPageFields(@RequestParam(value = "active", required = false) Boolean activeOnly,
+                                                                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                            @RequestParam("limit") int limit,
+                                                                                            @RequestParam("fields") String fields) {
+        log.info("GET /api/customers - Retrieving customers page with fields {}, activeOnly: {}, limit: {}", fields, activeOnly, limit);
+
+        return customerService.findPageProjected(activeOnly, cursor, limit, fields)
+                .map(page -> ResponseEntity.ok(page))
+                .doOnSuccess(response -> log.info("Customers page retrieved successfully"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customers page: {}", error.getMessage()));
+    }
+
+    @GetMapping("/filter")
+    public Mono<ResponseEntity<CustomerPageResponseDTO<CustomerResponseDTO>>> getFiltered(@RequestParam(value = "customerType", required = false) Set<CustomerType> customerTypes,
+                                                                     @RequestParam(value = "active", required = false) Boolean active,
+                                                                     @RequestParam(value = "documentType", required = false) DocumentType documentType,
+                                                                     @RequestParam(value = "cursor", required = false) String cursor,
+                                                                     @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        log.info("GET /api/customers/filter - Retrieving customers, customerTypes: {}, active: {}, documentType: {}",
+                customerTypes, active, documentType);
+
+        return customerService.findFiltered(customerTypes, active, documentType, cursor, limit)
+                .map(page -> ResponseEntity.ok(page))
+                .doOnSuccess(response -> log.info("Filtered customers retrieved successfully"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving filtered customers: {}", error.getMessage()));
+    }
+
+    /**
+     * Server-sent events with every change to the customers. The event id is the resume token, so a
+     * reconnecting client that sends {@code Last-Event-ID} continues right after the last change it
+     * received. Comment lines are sent every {@code changesHeartbeat} to keep idle connections open.
+     * Requires Mongo to run as a replica set.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<CustomerChangeEventDTO>> streamChanges(@RequestParam(value = "customerType", required = false) Set<CustomerType> customerTypes,
+                                                                       @RequestParam(value = "active", required = false) Boolean active,
+                                                                       @RequestParam(value = "resumeToken", required = false) String resumeToken,
+                                                                       @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("GET /api/customers/changes - Streaming customer changes, customerTypes: {}, active: {}", customerTypes, active);
+
+        Flux<ServerSentEvent<CustomerChangeEventDTO>> changes = customerService
+                .watchChanges(customerTypes, active, lastEventId != null ? lastEventId : resumeToken)
+                .map(change -> ServerSentEvent.builder(change)
+                        .id(change.getResumeToken())
+                        .event(change.getOperation())
+                        .build());
+        Flux<ServerSentEvent<CustomerChangeEventDTO>> heartbeats = Flux.interval(changesHeartbeat)
+                .map(tick -> ServerSentEvent.<CustomerChangeEventDTO>builder().comment("keepalive").build());
+
+        // Heartbeats stop as soon as the change stream terminates
+        return changes.publish(shared -> Flux.merge(shared, heartbeats.takeUntilOther(shared.then(Mono.just(true)))))
+                .doOnComplete(() -> log.info("Customer change stream completed"));
+    }
+
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<CustomerStatisticsDTO>> getStatistics() {
+        log.info("GET /api/customers/stats - Retrieving customer statistics");
+
+        return customerService.getStatistics()
+                .map(statistics -> ResponseEntity.ok(statistics))
+                .doOnSuccess(response -> log.info("Customer statistics retrieved successfully"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer statistics: {}", error.getMessage()));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<CustomerPageResponseDTO<CustomerResponseDTO>>> searchCustomers(@RequestParam("q") String query,
+                                                                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                              @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        log.info("GET /api/customers/search - Searching customers, query: {}, limit: {}", query, limit);
+
+        return customerService.search(query, cursor, limit)
+                .map(page -> ResponseEntity.ok(page))
+                .doOnSuccess(response -> log.info("Customer search completed successfully"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error searching customers: {}", error.getMessage()));
+    }
+
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<CustomerResponseDTO>> getCustomer(@PathVariable String id) {
+    public Mono<ResponseEntity<CustomerResponseDTO>> getCustomer(@PathVariable String id, ServerWebExchange exchange) {
         log.info("GET /api/customers/{} - Retrieving customer by ID", id);
 
-        return customerService.findById(id)
-                .map(customer -> ResponseEntity.ok(customer))
+        return conditionalGet(exchange, () -> customerService.findRevisionById(id), () -> customerService.findById(id))
                 .doOnSuccess(response -> log.info("Customer retrieved successfully: {}", id))
-                .doOnError(error -> log.error("Error retrieving customer {}: {}", id, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer {}: {}", id, error.getMessage()));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public Mono<ResponseEntity<Map<String, Object>>> getCustomerFields(@PathVariable String id, @RequestParam("fields") String fields) {
+        log.info("GET /api/customers/{} - Retrieving customer fields {}", id, fields);
+
+        return customerService.findByIdProjected(id, fields)
+                .map(customer -> ResponseEntity.ok(customer))
+                .doOnSuccess(response -> log.info("Customer fields retrieved successfully: {}", id))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer fields {}: {}", id, error.getMessage()));
     }
 
     @PutMapping("/{id}")
@@ -68,7 +281,19 @@ public class CustomerController {
         return customerService.update(id, requestDto)
                 .map(customer -> ResponseEntity.ok(customer))
                 .doOnSuccess(response -> log.info("Customer updated successfully: {}", id))
-                .doOnError(error -> log.error("Error updating customer {}: {}", id, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error updating customer {}: {}", id, error.getMessage()));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<CustomerResponseDTO>> patchCustomer(@PathVariable String id,
+                                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                   @Valid @RequestBody CustomerPatchRequestDTO patchDto) {
+        log.info("PATCH /api/customers/{} - Patching customer, If-Match: {}", id, ifMatch);
+
+        return Mono.defer(() -> customerService.patch(id, EntityTags.parseVersion(ifMatch, id), patchDto))
+                .map(customer -> ResponseEntity.ok().eTag(EntityTags.of(customer.getId(), customer.getVersion())).body(customer))
+                .doOnSuccess(response -> log.info("Customer patched successfully: {}", id))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error patching customer {}: {}", id, error.getMessage()));
     }
 
     @DeleteMapping("/{id}")
@@ -78,27 +303,92 @@ public class CustomerController {
         return customerService.deleteById(id)
                 .then(Mono.just(new ResponseEntity<Void>(HttpStatus.NO_CONTENT)))
                 .doOnSuccess(response -> log.info("Customer deleted successfully: {}", id))
-                .doOnError(error -> log.error("Error deleting customer {}: {}", id, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error deleting customer {}: {}", id, error.getMessage()));
+    }
+
+    @PostMapping("/{id}/activate")
+    public Mono<ResponseEntity<CustomerResponseDTO>> activateCustomer(@PathVariable String id) {
+        log.info("POST /api/customers/{}/activate - Activating customer", id);
+
+        return customerService.activate(id)
+                .map(customer -> ResponseEntity.ok(customer))
+                .doOnSuccess(response -> log.info("Customer activated successfully: {}", id))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error activating customer {}: {}", id, error.getMessage()));
+    }
+
+    @PostMapping("/{id}/deactivate")
+    public Mono<ResponseEntity<CustomerResponseDTO>> deactivateCustomer(@PathVariable String id) {
+        log.info("POST /api/customers/{}/deactivate - Deactivating customer", id);
+
+        return customerService.deactivate(id)
+                .map(customer -> ResponseEntity.ok(customer))
+                .doOnSuccess(response -> log.info("Customer deactivated successfully: {}", id))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error deactivating customer {}: {}", id, error.getMessage()));
     }
 
     @GetMapping("/email/{email}")
-    public Mono<ResponseEntity<CustomerResponseDTO>> getCustomerByEmail(@PathVariable String email) {
+    public Mono<ResponseEntity<CustomerResponseDTO>> getCustomerByEmail(@PathVariable String email, ServerWebExchange exchange) {
         log.info("GET /api/customers/email/{} - Retrieving customer by email", email);
 
-        return customerService.findByEmail(email)
-                .map(customer -> ResponseEntity.ok(customer))
+        return conditionalGet(exchange, () -> customerService.findRevisionByEmail(email), () -> customerService.findByEmail(email))
                 .doOnSuccess(response -> log.info("Customer retrieved by email successfully: {}", email))
-                .doOnError(error -> log.error("Error retrieving customer by email {}: {}", email, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer by email {}: {}", email, error.getMessage()));
     }
 
     @GetMapping("/document/{documentNumber}")
-    public Mono<ResponseEntity<CustomerResponseDTO>> getCustomerByDocumentNumber(@PathVariable String documentNumber) {
+    public Mono<ResponseEntity<CustomerResponseDTO>> getCustomerByDocumentNumber(@PathVariable String documentNumber, ServerWebExchange exchange) {
         log.info("GET /api/customers/document/{} - Retrieving customer by document number", documentNumber);
 
-        return customerService.findByDocumentNumber(documentNumber)
-                .map(customer -> ResponseEntity.ok(customer))
+        return conditionalGet(exchange, () -> customerService.findRevisionByDocumentNumber(documentNumber),
+                        () -> customerService.findByDocumentNumber(documentNumber))
                 .doOnSuccess(response -> log.info("Customer retrieved by document number successfully: {}", documentNumber))
-                .doOnError(error -> log.error("Error retrieving customer by document number {}: {}", documentNumber, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer by document number {}: {}", documentNumber, error.getMessage()));
     }
-}
 
+    /**
+     * Single customer read with a strong ETag (id and version) and {@code Last-Modified}. When the request
+     * carries {@code If-None-Match} or {@code If-Modified-Since}, only the revision is read first and
+     * an unchanged customer is answered with 304 without loading or serializing it.
+     */
+    private Mono<ResponseEntity<CustomerResponseDTO>> conditionalGet(ServerWebExchange exchange,
+                                                                     Supplier<Mono<CustomerRevisionDTO>> revision,
+                                                                     Supplier<Mono<CustomerResponseDTO>> read) {
+        Mono<ResponseEntity<CustomerResponseDTO>> fullRead = Mono.defer(read)
+                .map(customer -> withValidators(ResponseEntity.ok(), customer.getId(), customer.getVersion(),
+                        EntityTags.lastModified(customer.getUpdatedAt(), customer.getCreatedAt()))
+                        .body(customer));
+
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (headers.getIfNoneMatch().isEmpty() && headers.getIfModifiedSince() < 0) {
+            return fullRead;
+        }
+        return revision.get()
+                .flatMap(current -> {
+                    String eTag = EntityTags.of(current.getId(), current.getVersion());
+                    boolean notModified = current.getLastModified() != null
+                            ? exchange.checkNotModified(eTag, current.getLastModified())
+                            : exchange.checkNotModified(eTag);
+                    if (notModified) {
+                        log.info("Customer {} not modified, version: {}", current.getId(), current.getVersion());
+                        return Mono.just(withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), current.getId(), current.getVersion(),
+                                current.getLastModified()).<CustomerResponseDTO>build());
+                    }
+                    return fullRead;
+                });
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, String id, Long version, Instant lastModified) {
+        builder.eTag(EntityTags.of(id, version));
+        if (lastModified != null) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+
+    private static ImportFormat importFormat(ServerWebExchange exchange) {
+        MediaType contentType = exchange.getRequest().getHeaders().getContentType();
+        return contentType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? ImportFormat.NDJSON
+                : ImportFormat.CSV;
+    }
+}
@@ -0,0 +1,25 @@
+package com.nttdata.banking.customer.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBatchRequestDTO {
+    // Elements are validated one by one by the service so that a bad item does not reject the whole batch
+    @NotEmpty(message = "Batch must contain at least one customer")
+    @Size(max = 1000, message = "Batch cannot exceed 1000 customers")
+    @Builder.Default
+    private List<CustomerRequestDTO> customers = new ArrayList<>();
+}
@@ -0,0 +1,30 @@
+package com.nttdata.banking.customer.dto.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerLookupRequestDTO {
+    @Size(max = 50000, message = "Lookup cannot exceed 50000 ids")
+    @Builder.Default
+    private List<String> ids = new ArrayList<>();
+
+    @Size(max = 50000, message = "Lookup cannot exceed 50000 emails")
+    @Builder.Default
+    private List<String> emails = new ArrayList<>();
+
+    @Size(max = 50000, message = "Lookup cannot exceed 50000 document numbers")
+    @Builder.Default
+    private List<String> documentNumbers = new ArrayList<>();
+}
@@ -0,0 +1,55 @@
+package com.nttdata.banking.customer.dto.request;
+
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Set;
+
+/**
+ * Partial update of a customer: only the non-null fields are changed.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerPatchRequestDTO {
+    @Size(min = 1, message = "Customer type cannot be empty")
+    private Set<CustomerType> customerType;
+
+    @Size(max = 100, message = "First name cannot exceed 100 characters")
+    private String firstName;
+
+    @Size(max = 100, message = "Last name cannot exceed 100 characters")
+    private String lastName;
+
+    private DocumentType documentType;
+
+    @Size(max = 12, message = "Document number cannot exceed 12 characters")
+    private String documentNumber;
+
+    @Size(max = 200, message = "Company name cannot exceed 200 characters")
+    private String companyName;
+
+    // Unlike full requests, blank is not accepted: it would be stored and collide on the unique RUC index
+    @Pattern(regexp = "^\\d{11}$", message = "RUC must be exactly 11 digits")
+    private String ruc;
+
+    @Pattern(regexp = "^\\+?[1-9]\\d{1,14}$", message = "Phone number format is invalid")
+    private String phoneNumber;
+
+    @Email(message = "Email format is invalid")
+    @Size(max = 150, message = "Email cannot exceed 150 characters")
+    private String email;
+
+    @Size(max = 300, message = "Address cannot exceed 300 characters")
+    private String address;
+}
@@ -0,0 +1,17 @@
+package com.nttdata.banking.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBatchItemResponseDTO {
+    private int index;
+    private int status;
+    private CustomerResponseDTO customer;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.nttdata.banking.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBatchResponseDTO {
+    private int total;
+    private int created;
+    private int rejected;
+    private List<CustomerBatchItemResponseDTO> results;
+}
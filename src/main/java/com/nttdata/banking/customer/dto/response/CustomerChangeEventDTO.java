@@ -0,0 +1,30 @@
+package com.nttdata.banking.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerChangeEventDTO {
+    /**
+     * {@code insert}, {@code update}, {@code replace} or {@code delete}.
+     */
+    private String operation;
+    private String customerId;
+    /**
+     * State after the change; {@code null} for deletes or when the customer was deleted before the
+     * change was read.
+     */
+    private CustomerResponseDTO customer;
+    private Instant timestamp;
+    /**
+     * Also sent as the event id, so {@code Last-Event-ID} resumes right after this change.
+     */
+    private String resumeToken;
+}
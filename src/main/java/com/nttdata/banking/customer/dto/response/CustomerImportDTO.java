@@ -0,0 +1,36 @@
+package com.nttdata.banking.customer.dto.response;
+
+import com.nttdata.banking.customer.enums.ImportFormat;
+import com.nttdata.banking.customer.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerImportDTO {
+    private String id;
+    private ImportFormat format;
+    private ImportStatus status;
+    /**
+     * Every line up to this one has been stored or rejected; a resumed import continues after it.
+     */
+    private long committedLine;
+    private long created;
+    private long rejected;
+    /**
+     * In the progress stream, the lines rejected since the previous event; otherwise the first
+     * rejected lines of the import.
+     */
+    private List<CustomerImportRejectDTO> rejects;
+    private String failure;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
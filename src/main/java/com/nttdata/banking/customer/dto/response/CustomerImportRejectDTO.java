@@ -0,0 +1,19 @@
+package com.nttdata.banking.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerImportRejectDTO {
+    /**
+     * Line number in the uploaded file, starting at 1.
+     */
+    private long line;
+    private int status;
+    private String error;
+}
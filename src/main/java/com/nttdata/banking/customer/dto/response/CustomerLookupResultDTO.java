@@ -0,0 +1,20 @@
+package com.nttdata.banking.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerLookupResultDTO {
+    /**
+     * {@code id}, {@code email} or {@code documentNumber}.
+     */
+    private String keyType;
+    private String key;
+    private boolean found;
+    private CustomerResponseDTO customer;
+}
@@ -26,4 +26,5 @@ public class CustomerResponseDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Boolean active;
+    private Long version;
 }
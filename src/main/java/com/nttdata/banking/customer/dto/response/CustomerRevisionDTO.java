@@ -0,0 +1,22 @@
+package com.nttdata.banking.customer.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * What conditional requests are validated against: the version behind the ETag and the
+ * {@code Last-Modified} date of a customer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerRevisionDTO {
+    private String id;
+    private Long version;
+    private Instant lastModified;
+}
@@ -0,0 +1,28 @@
+package com.nttdata.banking.customer.dto.response;
+
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Customer counts. A customer with several types is counted under each of them, so
+ * {@code byCustomerType} may add up to more than {@code total}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerStatisticsDTO {
+    private long total;
+    private long active;
+    private long inactive;
+    private Map<CustomerType, Long> byCustomerType;
+    private Map<DocumentType, Long> byDocumentType;
+    private Instant reconciledAt;
+}
@@ -4,25 +4,54 @@ import lombok.Getter;
 
 @Getter
 public enum DocumentType {
-    DNI("DNI", 8, "^\\d{8}$"),
-    PASSPORT("PASSPORT", 12, "^[A-Z0-9]{6,12}$"),
-    RUC("RUC", 11, "^\\d{11}$"),
-    FOREIGNER_CARD("FOREIGNER_CARD", 12, "^[A-Z0-9]{6,12}$");
+    DNI("DNI", 8, 8, true, "^\\d{8}$"),
+    PASSPORT("PASSPORT", 6, 12, false, "^[A-Z0-9]{6,12}$"),
+    RUC("RUC", 11, 11, true, "^\\d{11}$"),
+    FOREIGNER_CARD("FOREIGNER_CARD", 6, 12, false, "^[A-Z0-9]{6,12}$");
 
     private final String name;
+    private final int minLength;
     private final int maxLength;
+    private final boolean digitsOnly;
     private final String pattern;
+    private final String formatMessage;
 
-    DocumentType(String name, int maxLength, String pattern) {
+    DocumentType(String name, int minLength, int maxLength, boolean digitsOnly, String pattern) {
         this.name = name;
+        this.minLength = minLength;
         this.maxLength = maxLength;
+        this.digitsOnly = digitsOnly;
         this.pattern = pattern;
+        this.formatMessage = String.format("Invalid format for document type %s. Expected pattern: %s", name, pattern);
     }
 
+    /**
+     * Checks the document number against {@link #getPattern()} with a length check and a character
+     * class scan, which is equivalent to the regular expression but compiles and allocates nothing.
+     */
     public boolean isValidFormat(String documentNumber) {
-        if (documentNumber == null || documentNumber.trim().isEmpty()) {
+        if (documentNumber == null) {
             return false;
         }
-        return documentNumber.matches(this.pattern);
+        return isValidFormat(documentNumber, 0, documentNumber.length());
+    }
+
+    /**
+     * Same as {@link #isValidFormat(String)} for the characters between {@code from} (inclusive)
+     * and {@code to} (exclusive), so callers can skip surrounding whitespace without trimming.
+     */
+    public boolean isValidFormat(CharSequence documentNumber, int from, int to) {
+        int length = to - from;
+        if (length < minLength || length > maxLength) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            char c = documentNumber.charAt(i);
+            boolean valid = (c >= '0' && c <= '9') || (!digitsOnly && c >= 'A' && c <= 'Z');
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
     }
 }
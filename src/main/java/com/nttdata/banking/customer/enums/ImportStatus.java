@@ -0,0 +1,5 @@
+package com.nttdata.banking.customer.enums;
+
+public enum ImportStatus {
+    RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,56 @@
+package com.nttdata.banking.customer.exception;
+
+/**
+ * Base of the expected business errors that are mapped to 4xx responses.
+ * <p>
+ * These are part of normal traffic (lookups of unknown customers, retried creates), so they are
+ * stackless, and the message is only concatenated when something reads it. The cause, when there
+ * is one, keeps its own stack trace.
+ */
+public abstract class CustomerDomainException extends RuntimeException {
+
+    private final String messagePrefix;
+    private final Object detail;
+    private String message;
+
+    protected CustomerDomainException(String message) {
+        this(message, null, null);
+    }
+
+    protected CustomerDomainException(String message, Throwable cause) {
+        this(message, null, cause);
+    }
+
+    /**
+     * @param messagePrefix constant part of the message
+     * @param detail        value appended to the prefix when the message is first read
+     */
+    protected CustomerDomainException(String messagePrefix, Object detail, Throwable cause) {
+        super(null, cause, false, false);
+        this.messagePrefix = messagePrefix;
+        this.detail = detail;
+    }
+
+    @Override
+    public String getMessage() {
+        String result = message;
+        if (result == null) {
+            result = buildMessage(messagePrefix, detail);
+            message = result;
+        }
+        return result;
+    }
+
+    /**
+     * Filter for {@code doOnError} logging: domain errors are logged once, within the rate limit, by
+     * {@link GlobalExceptionHandler}, so call sites only log the others, which also leaves the message
+     * of an expected error unbuilt unless the response needs it.
+     */
+    public static boolean isUnexpected(Throwable error) {
+        return !(error instanceof CustomerDomainException);
+    }
+
+    protected String buildMessage(String messagePrefix, Object detail) {
+        return detail != null ? messagePrefix + detail : messagePrefix;
+    }
+}
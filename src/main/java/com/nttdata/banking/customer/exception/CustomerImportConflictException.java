@@ -0,0 +1,15 @@
+package com.nttdata.banking.customer.exception;
+
+/**
+ * The import is being run by another request, or was taken over by one while this request ran it.
+ */
+public class CustomerImportConflictException extends CustomerDomainException {
+
+    public CustomerImportConflictException(String message) {
+        super(message);
+    }
+
+    public CustomerImportConflictException(String messagePrefix, Object detail) {
+        super(messagePrefix, detail, null);
+    }
+}
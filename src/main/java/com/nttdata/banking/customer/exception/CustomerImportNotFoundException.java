@@ -0,0 +1,16 @@
+package com.nttdata.banking.customer.exception;
+
+public class CustomerImportNotFoundException extends CustomerDomainException {
+
+    public CustomerImportNotFoundException(String message) {
+        super(message);
+    }
+
+    public CustomerImportNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public CustomerImportNotFoundException(String messagePrefix, Object detail) {
+        super(messagePrefix, detail, null);
+    }
+}
@@ -1,11 +1,16 @@
 package com.nttdata.banking.customer.exception;
 
-public class CustomerNotFoundException extends RuntimeException {
+public class CustomerNotFoundException extends CustomerDomainException {
 
     public CustomerNotFoundException(String message) {
         super(message);
     }
+
     public CustomerNotFoundException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    public CustomerNotFoundException(String messagePrefix, Object detail) {
+        super(messagePrefix, detail, null);
+    }
 }
@@ -0,0 +1,15 @@
+package com.nttdata.banking.customer.exception;
+
+/**
+ * The version named by a conditional request ({@code If-Match}) is no longer the stored one.
+ */
+public class CustomerPreconditionFailedException extends CustomerDomainException {
+
+    public CustomerPreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public CustomerPreconditionFailedException(String messagePrefix, Object detail) {
+        super(messagePrefix, detail, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.nttdata.banking.customer.exception;
+
+public class CustomerVersionConflictException extends CustomerDomainException {
+
+    public CustomerVersionConflictException(String message) {
+        super(message);
+    }
+
+    public CustomerVersionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public CustomerVersionConflictException(String messagePrefix, Object detail) {
+        super(messagePrefix, detail, null);
+    }
+}
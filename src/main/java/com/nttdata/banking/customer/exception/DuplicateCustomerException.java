@@ -1,7 +1,6 @@
 package com.nttdata.banking.customer.exception;
 
-
-public class DuplicateCustomerException extends RuntimeException {
+public class DuplicateCustomerException extends CustomerDomainException {
 
     public DuplicateCustomerException(String message) {
         super(message);
@@ -10,4 +9,8 @@ public class DuplicateCustomerException extends RuntimeException {
     public DuplicateCustomerException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    public DuplicateCustomerException(String messagePrefix, Object detail) {
+        super(messagePrefix, detail, null);
+    }
 }
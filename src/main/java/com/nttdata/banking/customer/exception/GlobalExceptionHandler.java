@@ -2,71 +2,109 @@ package com.nttdata.banking.customer.exception;
 
 import com.nttdata.banking.customer.dto.response.ErrorResponseDTO;
 import com.nttdata.banking.customer.dto.response.ValidationErrorResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+    private final RateLimitedErrorLog errorLog;
+    private final Map<Class<?>, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry,
+                                  @Value("${nttdata.customer.errors.log-lines-per-second:10}") int logLinesPerSecond) {
+        this.meterRegistry = meterRegistry;
+        this.errorLog = new RateLimitedErrorLog(logLinesPerSecond);
+    }
+
     @ExceptionHandler(CustomerNotFoundException.class)
-    public Mono<ResponseEntity<ErrorResponseDTO>> handleCustomerNotFound(CustomerNotFoundException ex) {
-        log.warn("Customer not found: {}", ex.getMessage());
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleCustomerNotFound(CustomerNotFoundException ex, ServerWebExchange exchange) {
+        return expectedError(HttpStatus.NOT_FOUND, "Customer Not Found", ex, exchange);
+    }
 
-        ErrorResponseDTO error = ErrorResponseDTO.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.NOT_FOUND.value())
-                .error("Customer Not Found")
-                .message(ex.getMessage())
-                .path("/api/v1/customers")
-                .build();
+    @ExceptionHandler(CustomerImportNotFoundException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleImportNotFound(CustomerImportNotFoundException ex, ServerWebExchange exchange) {
+        return expectedError(HttpStatus.NOT_FOUND, "Import Not Found", ex, exchange);
+    }
 
-        return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(error));
+    @ExceptionHandler(CustomerImportConflictException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleImportConflict(CustomerImportConflictException ex, ServerWebExchange exchange) {
+        return expectedError(HttpStatus.CONFLICT, "Import Conflict", ex, exchange);
     }
 
     @ExceptionHandler(DuplicateCustomerException.class)
-    public Mono<ResponseEntity<ErrorResponseDTO>> handleDuplicateCustomer(DuplicateCustomerException ex) {
-        log.warn("Duplicate customer error: {}", ex.getMessage());
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleDuplicateCustomer(DuplicateCustomerException ex, ServerWebExchange exchange) {
+        return expectedError(HttpStatus.CONFLICT, "Duplicate Customer", ex, exchange);
+    }
 
-        ErrorResponseDTO error = ErrorResponseDTO.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.CONFLICT.value())
-                .error("Duplicate Customer")
-                .message(ex.getMessage())
-                .path("/api/v1/customers")
-                .build();
+    @ExceptionHandler(CustomerVersionConflictException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleVersionConflict(CustomerVersionConflictException ex, ServerWebExchange exchange) {
+        return expectedError(HttpStatus.CONFLICT, "Version Conflict", ex, exchange);
+    }
 
-        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(error));
+    @ExceptionHandler(CustomerPreconditionFailedException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handlePreconditionFailed(CustomerPreconditionFailedException ex, ServerWebExchange exchange) {
+        return expectedError(HttpStatus.PRECONDITION_FAILED, "Precondition Failed", ex, exchange);
     }
 
+    /**
+     * Every broken rule is reported by field, like bean validation errors.
+     */
     @ExceptionHandler(InvalidDocumentException.class)
-    public Mono<ResponseEntity<ErrorResponseDTO>> handleInvalidDocument(InvalidDocumentException ex) {
-        log.warn("Invalid document error: {}", ex.getMessage());
+    public Mono<ResponseEntity<ValidationErrorResponseDTO>> handleInvalidDocument(InvalidDocumentException ex, ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().value();
+        logExpected("Invalid Document", path, ex);
+        countError(ex, HttpStatus.BAD_REQUEST);
 
-        ErrorResponseDTO error = ErrorResponseDTO.builder()
+        ValidationErrorResponseDTO errorResponse = ValidationErrorResponseDTO.builder()
                 .timestamp(LocalDateTime.now())
                 .status(HttpStatus.BAD_REQUEST.value())
                 .error("Invalid Document")
                 .message(ex.getMessage())
-                .path("/api/v1/customers")
+                .path(path)
+                .validationErrors(ex.getViolations())
                 .build();
 
-        return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
+        return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+    }
+
+    @ExceptionHandler(InvalidQueryParameterException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleInvalidQueryParameter(InvalidQueryParameterException ex, ServerWebExchange exchange) {
+        return expectedError(HttpStatus.BAD_REQUEST, "Invalid Request Parameter", ex, exchange);
+    }
+
+    @ExceptionHandler(RepositoryUnavailableException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleRepositoryUnavailable(RepositoryUnavailableException ex, ServerWebExchange exchange) {
+        String retryAfterSeconds = String.valueOf(Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000));
+        return expectedError(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", ex, exchange)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                        .body(response.getBody()));
     }
 
     @ExceptionHandler(WebExchangeBindException.class)
-    public Mono<ResponseEntity<ValidationErrorResponseDTO>> handleValidationErrors(WebExchangeBindException ex) {
-        log.warn("Validation error: {}", ex.getMessage());
+    public Mono<ResponseEntity<ValidationErrorResponseDTO>> handleValidationErrors(WebExchangeBindException ex, ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().value();
+        logExpected("Validation Failed", path, ex);
+        countError(ex, HttpStatus.BAD_REQUEST);
 
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach(error -> {
@@ -80,7 +118,7 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.BAD_REQUEST.value())
                 .error("Validation Failed")
                 .message("Request validation failed")
-                .path("/api/v1/customers")
+                .path(path)
                 .validationErrors(errors)
                 .build();
 
@@ -88,17 +126,65 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(Exception.class)
-    public Mono<ResponseEntity<ErrorResponseDTO>> handleGenericError(Exception ex) {
-        log.error("Unexpected error occurred", ex);
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleGenericError(Exception ex, ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().value();
+        log.error("Unexpected error occurred on {}", path, ex);
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
 
         ErrorResponseDTO error = ErrorResponseDTO.builder()
                 .timestamp(LocalDateTime.now())
                 .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
                 .error("Internal Server Error")
                 .message("An unexpected error occurred")
-                .path("/api/v1/customers")
+                .path(path)
                 .build();
 
         return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error));
     }
-}
\ No newline at end of file
+
+    /**
+     * Response for the errors that are part of normal traffic: logged within the rate limit and
+     * counted, without a stack trace.
+     */
+    private Mono<ResponseEntity<ErrorResponseDTO>> expectedError(HttpStatus status, String title, Exception ex,
+                                                                 ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().value();
+        logExpected(title, path, ex);
+        countError(ex, status);
+
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(title)
+                .message(ex.getMessage())
+                .path(path)
+                .build();
+
+        return Mono.just(ResponseEntity.status(status).body(error));
+    }
+
+    private void logExpected(String title, String path, Exception ex) {
+        long suppressed = errorLog.tryAcquire(ex.getClass());
+        if (suppressed == RateLimitedErrorLog.SUPPRESSED) {
+            return;
+        }
+        if (suppressed > 0) {
+            log.warn("{} on {}: {} ({} similar errors not logged)", title, path, ex.getMessage(), suppressed);
+        } else {
+            log.warn("{} on {}: {}", title, path, ex.getMessage());
+        }
+    }
+
+    /**
+     * One counter per exception type and status, so error rates can be told apart per cause. Each
+     * exception type is handled with a single status, so counters are cached by type.
+     */
+    private void countError(Throwable ex, HttpStatus status) {
+        errorCounters.computeIfAbsent(ex.getClass(), type -> Counter.builder("customer.errors")
+                        .description("Exceptions handled by the API, by type and response status")
+                        .tag("exception", type.getSimpleName())
+                        .tag("status", String.valueOf(status.value()))
+                        .register(meterRegistry))
+                .increment();
+    }
+}
@@ -1,12 +1,37 @@
 package com.nttdata.banking.customer.exception;
 
-public class InvalidDocumentException extends RuntimeException {
+import java.util.Map;
+
+public class InvalidDocumentException extends CustomerDomainException {
+
+    private final Map<String, String> violations;
 
     public InvalidDocumentException(String message) {
         super(message);
+        this.violations = Map.of();
     }
 
     public InvalidDocumentException(String message, Throwable cause) {
         super(message, cause);
+        this.violations = Map.of();
+    }
+
+    /**
+     * Reports every rule a request broke; the message joins them with {@code "; "}.
+     *
+     * @param violations error messages keyed by request field, in rule order
+     */
+    public InvalidDocumentException(Map<String, String> violations) {
+        super(null, violations, null);
+        this.violations = violations;
+    }
+
+    public Map<String, String> getViolations() {
+        return violations;
+    }
+
+    @Override
+    protected String buildMessage(String messagePrefix, Object detail) {
+        return detail instanceof Map<?, ?> ? String.join("; ", violations.values()) : messagePrefix;
     }
 }
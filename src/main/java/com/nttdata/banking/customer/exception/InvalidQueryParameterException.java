@@ -0,0 +1,16 @@
+package com.nttdata.banking.customer.exception;
+
+public class InvalidQueryParameterException extends CustomerDomainException {
+
+    public InvalidQueryParameterException(String message) {
+        super(message);
+    }
+
+    public InvalidQueryParameterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidQueryParameterException(String messagePrefix, Object detail) {
+        super(messagePrefix, detail, null);
+    }
+}
@@ -0,0 +1,47 @@
+package com.nttdata.banking.customer.exception;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per exception type budget of log lines per second. Errors over the budget are only counted, and
+ * the count is reported with the next line that gets logged for that type.
+ */
+final class RateLimitedErrorLog {
+
+    static final long SUPPRESSED = -1;
+
+    private final int linesPerSecond;
+    private final ConcurrentMap<Class<?>, Window> windows = new ConcurrentHashMap<>();
+
+    RateLimitedErrorLog(int linesPerSecond) {
+        this.linesPerSecond = linesPerSecond;
+    }
+
+    /**
+     * @return {@link #SUPPRESSED} when this error must not be logged, otherwise the number of
+     * errors of the same type suppressed since the last one logged
+     */
+    long tryAcquire(Class<?> type) {
+        Window window = windows.computeIfAbsent(type, key -> new Window());
+        long second = System.nanoTime() / 1_000_000_000L;
+        long current = window.second.get();
+        if (current != second && window.second.compareAndSet(current, second)) {
+            window.count.set(0);
+        }
+        if (window.count.incrementAndGet() <= linesPerSecond) {
+            return window.suppressed.sumThenReset();
+        }
+        window.suppressed.increment();
+        return SUPPRESSED;
+    }
+
+    private static final class Window {
+        private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger count = new AtomicInteger();
+        private final LongAdder suppressed = new LongAdder();
+    }
+}
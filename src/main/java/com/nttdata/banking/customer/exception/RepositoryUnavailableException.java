@@ -0,0 +1,25 @@
+package com.nttdata.banking.customer.exception;
+
+import java.time.Duration;
+
+/**
+ * The database did not answer within the deadline, or calls are being refused while it recovers.
+ * Like the domain exceptions it is stackless: under an outage it is thrown for every request.
+ */
+public class RepositoryUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RepositoryUnavailableException(String message, Duration retryAfter) {
+        this(message, retryAfter, null);
+    }
+
+    public RepositoryUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause, false, false);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
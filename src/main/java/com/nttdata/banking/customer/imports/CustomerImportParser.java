@@ -0,0 +1,153 @@
+package com.nttdata.banking.customer.imports;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.enums.ImportFormat;
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits an uploaded file into customer requests one line at a time, so only the lines in flight
+ * are held in memory.
+ * <p>
+ * CSV files start with a header naming the {@link CustomerRequestDTO} fields; customer types are
+ * separated by {@code |}. Quoted values may contain commas and doubled quotes, but not line breaks.
+ * A line that cannot be parsed becomes a rejected row instead of failing the import.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerImportParser {
+
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+    private static final String CUSTOMER_TYPE = "customerType";
+    private static final Set<String> CSV_COLUMNS = Set.of(CUSTOMER_TYPE, "firstName", "lastName", "documentType",
+            "documentNumber", "companyName", "ruc", "phoneNumber", "email", "address");
+    private static final Pattern CUSTOMER_TYPE_SEPARATOR = Pattern.compile("\\|");
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final ObjectMapper objectMapper;
+    private final StringDecoder lineDecoder = StringDecoder.allMimeTypes(List.of("\n"), true);
+
+    /**
+     * @param afterLine lines up to this one are skipped, as they were handled before an interruption
+     * @throws InvalidQueryParameterException if the CSV header names an unknown column
+     */
+    public Flux<ImportRow> parse(ImportFormat format, Flux<DataBuffer> body, long afterLine) {
+        Flux<ImportLine> lines = lineDecoder.decode(body, STRING_TYPE, null, null)
+                .index((index, text) -> new ImportLine(index + 1, stripLineEnd(text)));
+
+        if (format == ImportFormat.NDJSON) {
+            return lines.filter(line -> line.number() > afterLine && !line.text().isBlank())
+                    .map(this::parseJson);
+        }
+        return lines.switchOnFirst((first, rest) -> {
+            if (!first.hasValue()) {
+                return rest.thenMany(Flux.<ImportRow>empty());
+            }
+            List<String> header = parseHeader(first.get().text());
+            return rest.skip(1)
+                    .filter(line -> line.number() > afterLine && !line.text().isBlank())
+                    .map(line -> parseCsv(header, line));
+        });
+    }
+
+    private ImportRow parseJson(ImportLine line) {
+        try {
+            return ImportRow.parsed(line.number(), objectMapper.readValue(line.text(), CustomerRequestDTO.class));
+        } catch (JsonProcessingException ex) {
+            return ImportRow.invalid(line.number(), "Invalid JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private ImportRow parseCsv(List<String> header, ImportLine line) {
+        List<String> values;
+        try {
+            values = splitCsv(line.text());
+        } catch (IllegalArgumentException ex) {
+            return ImportRow.invalid(line.number(), ex.getMessage());
+        }
+        if (values.size() != header.size()) {
+            return ImportRow.invalid(line.number(), "Expected " + header.size() + " columns but found " + values.size());
+        }
+
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            fields.put(header.get(i), CUSTOMER_TYPE.equals(header.get(i))
+                    ? CUSTOMER_TYPE_SEPARATOR.splitAsStream(value).map(String::trim).toList()
+                    : value);
+        }
+        try {
+            return ImportRow.parsed(line.number(), objectMapper.convertValue(fields, CustomerRequestDTO.class));
+        } catch (IllegalArgumentException ex) {
+            String message = ex.getCause() instanceof JsonProcessingException cause ? cause.getOriginalMessage() : ex.getMessage();
+            return ImportRow.invalid(line.number(), "Invalid value: " + message);
+        }
+    }
+
+    private static List<String> parseHeader(String text) {
+        List<String> header = new ArrayList<>();
+        for (String column : splitCsv(!text.isEmpty() && text.charAt(0) == BYTE_ORDER_MARK ? text.substring(1) : text)) {
+            String name = column.trim();
+            if (!CSV_COLUMNS.contains(name)) {
+                throw new InvalidQueryParameterException("Unknown CSV column: ", name);
+            }
+            header.add(name);
+        }
+        return header;
+    }
+
+    private static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String stripLineEnd(String text) {
+        return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    private record ImportLine(long number, String text) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.nttdata.banking.customer.imports;
+
+import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+
+/**
+ * One line of an import file, either parsed into a request or with the reason it could not be.
+ */
+public record ImportRow(long line, CustomerRequestDTO request, String error) {
+
+    static ImportRow parsed(long line, CustomerRequestDTO request) {
+        return new ImportRow(line, request, null);
+    }
+
+    static ImportRow invalid(long line, String error) {
+        return new ImportRow(line, null, error);
+    }
+
+    public boolean isParsed() {
+        return error == null;
+    }
+}
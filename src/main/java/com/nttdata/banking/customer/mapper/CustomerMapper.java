@@ -1,5 +1,6 @@
 package com.nttdata.banking.customer.mapper;
 
+import com.nttdata.banking.customer.dto.request.CustomerPatchRequestDTO;
 import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
 import com.nttdata.banking.customer.dto.response.CustomerResponseDTO;
 import com.nttdata.banking.customer.models.entity.Customer;
@@ -27,4 +28,11 @@ public interface CustomerMapper {
     @Mapping(target = "updatedAt", expression = "java(LocalDateTime.now())")
     @Mapping(target = "active", ignore = true)
     void updateEntityFromDto(CustomerRequestDTO requestDto, @MappingTarget Customer existingCustomer);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "active", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void patchEntityFromDto(CustomerPatchRequestDTO patchDto, @MappingTarget Customer customer);
 }
@@ -8,11 +8,15 @@ import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Getter
@@ -21,7 +25,20 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "customers")
+@CompoundIndexes({
+        @CompoundIndex(name = Customer.ACTIVE_ID_INDEX, def = "{'active': 1, '_id': 1}"),
+        @CompoundIndex(name = Customer.CUSTOMER_TYPE_ACTIVE_ID_INDEX, def = "{'customerType': 1, 'active': 1, '_id': 1}"),
+        @CompoundIndex(name = Customer.DOCUMENT_TYPE_ACTIVE_ID_INDEX, def = "{'documentType': 1, 'active': 1, '_id': 1}"),
+        @CompoundIndex(name = Customer.SEARCH_KEYS_ID_INDEX, def = "{'searchKeys': 1, '_id': 1}"),
+        @CompoundIndex(name = Customer.SEARCH_PREFIXES_ID_INDEX, def = "{'searchPrefixes': 1, '_id': 1}")
+})
 public class Customer {
+    public static final String ACTIVE_ID_INDEX = "active_id_idx";
+    public static final String CUSTOMER_TYPE_ACTIVE_ID_INDEX = "customerType_active_id_idx";
+    public static final String DOCUMENT_TYPE_ACTIVE_ID_INDEX = "documentType_active_id_idx";
+    public static final String SEARCH_KEYS_ID_INDEX = "searchKeys_id_idx";
+    public static final String SEARCH_PREFIXES_ID_INDEX = "searchPrefixes_id_idx";
+
     @Id
     private String id;
 
@@ -57,6 +74,20 @@ public class Customer {
     @Builder.Default
     private Boolean active = true;
 
+    @Version
+    private Long version;
+
+    /**
+     * Normalized tokens of the names, company name and email, maintained by
+     * {@link com.nttdata.banking.customer.search.CustomerSearchKeysCallback}.
+     */
+    private List<String> searchKeys;
+
+    /**
+     * Prefixes of {@link #searchKeys}, maintained with them.
+     */
+    private List<String> searchPrefixes;
+
     public boolean isPersonalCustomer() {
         return customerType.contains(CustomerType.PERSONAL);
     }
@@ -0,0 +1,73 @@
+package com.nttdata.banking.customer.models.entity;
+
+import com.nttdata.banking.customer.enums.ImportFormat;
+import com.nttdata.banking.customer.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checkpoint of a bulk import. Every line up to {@code committedLine} has been either stored or
+ * rejected, so a resumed import skips them.
+ * <p>
+ * A running import saves its checkpoint after every batch, which also refreshes {@code updatedAt};
+ * the version makes those saves fail once another request has taken the import over.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "customer_imports")
+public class CustomerImport {
+
+    @Id
+    private String id;
+
+    private ImportFormat format;
+
+    private ImportStatus status;
+
+    private long committedLine;
+
+    private long created;
+
+    private long rejected;
+
+    /**
+     * First rejected lines, up to {@code nttdata.customer.import.max-stored-rejects}.
+     */
+    @Builder.Default
+    private List<Reject> rejects = new ArrayList<>();
+
+    private String failure;
+
+    @Version
+    private Long version;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Reject {
+        private long line;
+        private int status;
+        private String error;
+    }
+}
@@ -0,0 +1,327 @@
+package com.nttdata.banking.customer.observability;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.reactivestreams.client.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Driver level profiler of the queries sent to Mongo.
+ * <p>
+ * Every data command is reduced to a shape: the command, the collection and the filter with its
+ * values replaced by {@code ?}, so {@code findByEmail} calls for different emails are aggregated
+ * together. Latency statistics are kept per shape. Commands slower than the configured threshold
+ * are logged together with the {@code explain} plan of their shape, flagging collection scans.
+ * <p>
+ * The command document is only valid during the started callback, so a copy is kept just once per
+ * shape, as the sample that gets explained. Explains run asynchronously on the driver, at most once
+ * per shape and interval, and are never profiled themselves.
+ */
+@Component
+@Slf4j
+public class MongoCommandProfiler implements CommandListener {
+
+    private static final Set<String> PROFILED_COMMANDS = Set.of(
+            "find", "aggregate", "count", "distinct", "update", "delete", "findAndModify", "insert", "getMore");
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of(
+            "find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+    private static final Set<String> SESSION_FIELDS = Set.of(
+            "$db", "lsid", "$clusterTime", "$readPreference", "txnNumber", "autocommit", "startTransaction",
+            "readConcern", "writeConcern");
+    private static final String OTHER_SHAPES = "(other)";
+    private static final int MAX_SHAPE_DEPTH = 4;
+
+    private final ObjectProvider<MongoClient> mongoClient;
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final long explainIntervalNanos;
+    private final int maxShapes;
+    private final Map<Integer, String> shapesInFlight = new ConcurrentHashMap<>();
+    private final Map<String, ShapeStats> statsByShape = new ConcurrentHashMap<>();
+
+    public MongoCommandProfiler(ObjectProvider<MongoClient> mongoClient,
+                                @Value("${nttdata.customer.mongo-profiler.enabled:true}") boolean enabled,
+                                @Value("${nttdata.customer.mongo-profiler.slow-threshold:PT0.1S}") Duration slowThreshold,
+                                @Value("${nttdata.customer.mongo-profiler.explain-interval:PT1M}") Duration explainInterval,
+                                @Value("${nttdata.customer.mongo-profiler.max-shapes:500}") int maxShapes) {
+        this.mongoClient = mongoClient;
+        this.enabled = enabled;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.explainIntervalNanos = explainInterval.toNanos();
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!enabled || !PROFILED_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        String shape = shapeOf(event.getCommandName(), command);
+        ShapeStats stats = statsByShape.get(shape);
+        if (stats == null) {
+            if (statsByShape.size() >= maxShapes) {
+                shape = OTHER_SHAPES;
+                stats = statsByShape.computeIfAbsent(shape, key -> new ShapeStats(key, event.getCommandName(), null, null));
+            } else {
+                stats = statsByShape.computeIfAbsent(shape, key -> new ShapeStats(key, event.getCommandName(),
+                        event.getDatabaseName(), explainSample(event.getCommandName(), command)));
+            }
+        }
+        shapesInFlight.put(event.getRequestId(), stats.shape);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS), false);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS), true);
+    }
+
+    /**
+     * @param limit maximum number of shapes to return
+     * @param order one of {@code mean}, {@code max} or {@code total}
+     * @return the slowest query shapes, slowest first
+     */
+    public List<QueryShapeReport> slowest(int limit, String order) {
+        Comparator<QueryShapeReport> comparator = switch (order) {
+            case "max" -> Comparator.comparingDouble(QueryShapeReport::maxMillis);
+            case "total" -> Comparator.comparingDouble(QueryShapeReport::totalMillis);
+            default -> Comparator.comparingDouble(QueryShapeReport::meanMillis);
+        };
+        List<QueryShapeReport> reports = new ArrayList<>(statsByShape.size());
+        for (ShapeStats stats : statsByShape.values()) {
+            reports.add(stats.toReport());
+        }
+        reports.sort(comparator.reversed());
+        return reports.size() > limit ? reports.subList(0, limit) : reports;
+    }
+
+    private void record(int requestId, long elapsedNanos, boolean failed) {
+        String shape = shapesInFlight.remove(requestId);
+        if (shape == null) {
+            return;
+        }
+        ShapeStats stats = statsByShape.get(shape);
+        stats.record(elapsedNanos, failed);
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            log.warn("Slow Mongo command: {} ms, shape: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), shape);
+            explain(stats);
+        }
+    }
+
+    private void explain(ShapeStats stats) {
+        if (stats.sample == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = stats.lastExplainNanos.get();
+        if ((last != 0 && now - last < explainIntervalNanos) || !stats.lastExplainNanos.compareAndSet(last, now)) {
+            return;
+        }
+
+        BsonDocument explain = new BsonDocument("explain", stats.sample)
+                .append("verbosity", new BsonString("queryPlanner"));
+        Mono.from(mongoClient.getObject().getDatabase(stats.database).runCommand(explain))
+                .subscribe(
+                        result -> {
+                            List<String> stages = new ArrayList<>();
+                            Object queryPlanner = result.get("queryPlanner");
+                            if (queryPlanner instanceof Document planner) {
+                                collectStages(planner.get("winningPlan"), stages, 0);
+                            } else {
+                                // Aggregations report the plan of their first stage
+                                collectStages(result.get("stages"), stages, 0);
+                            }
+                            stats.plan = String.join(" <- ", stages);
+                            stats.collectionScan = stages.contains("COLLSCAN");
+                            if (stats.collectionScan) {
+                                log.warn("Slow Mongo command uses a COLLSCAN, shape: {}, plan: {}", stats.shape, stats.plan);
+                            } else {
+                                log.warn("Slow Mongo command plan, shape: {}, plan: {}", stats.shape, stats.plan);
+                            }
+                        },
+                        error -> log.debug("Could not explain Mongo command {}: {}", stats.shape, error.getMessage()));
+    }
+
+    /**
+     * Flattens the plan tree into its stage names, outermost first, with the index of each scan.
+     */
+    private static void collectStages(Object node, List<String> stages, int depth) {
+        if (depth > 16) {
+            return;
+        }
+        if (node instanceof List<?> children) {
+            for (Object child : children) {
+                collectStages(child, stages, depth + 1);
+            }
+        } else if (node instanceof Document plan) {
+            Object stage = plan.get("stage");
+            if (stage != null) {
+                Object indexName = plan.get("indexName");
+                stages.add(indexName != null ? stage + "(" + indexName + ")" : stage.toString());
+            }
+            for (String child : List.of("inputStage", "inputStages", "queryPlan", "$cursor", "queryPlanner", "winningPlan")) {
+                if (plan.containsKey(child)) {
+                    collectStages(plan.get(child), stages, depth + 1);
+                }
+            }
+        }
+    }
+
+    private static BsonDocument explainSample(String commandName, BsonDocument command) {
+        if (!EXPLAINABLE_COMMANDS.contains(commandName)) {
+            return null;
+        }
+        BsonDocument sample = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            if (!SESSION_FIELDS.contains(entry.getKey())) {
+                sample.append(entry.getKey(), entry.getValue().clone());
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * {@code <command> <collection> <filter>}, where the filter keeps field names and operators only.
+     */
+    static String shapeOf(String commandName, BsonDocument command) {
+        StringBuilder shape = new StringBuilder(64).append(commandName).append(' ');
+        BsonValue collection = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        shape.append(collection != null && collection.isString() ? collection.asString().getValue() : "?");
+
+        BsonValue filter = switch (commandName) {
+            case "find", "distinct" -> command.get("filter");
+            case "count", "findAndModify" -> command.get("query");
+            case "aggregate" -> command.get("pipeline");
+            case "update" -> firstStatement(command.get("updates"));
+            case "delete" -> firstStatement(command.get("deletes"));
+            default -> null;
+        };
+        if (filter != null) {
+            shape.append(' ');
+            appendShape(shape, filter, 0);
+        }
+        BsonValue sort = command.get("sort");
+        if (sort != null && sort.isDocument()) {
+            shape.append(" sort").append(sort.asDocument().keySet());
+        }
+        return shape.toString();
+    }
+
+    private static BsonValue firstStatement(BsonValue statements) {
+        if (statements == null || !statements.isArray() || statements.asArray().isEmpty()) {
+            return null;
+        }
+        BsonValue statement = statements.asArray().get(0);
+        return statement.isDocument() ? statement.asDocument().get("q") : null;
+    }
+
+    private static void appendShape(StringBuilder shape, BsonValue value, int depth) {
+        if (depth > MAX_SHAPE_DEPTH) {
+            shape.append("...");
+        } else if (value.isDocument()) {
+            shape.append('{');
+            boolean first = true;
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (!first) {
+                    shape.append(", ");
+                }
+                first = false;
+                shape.append(entry.getKey()).append(": ");
+                appendShape(shape, entry.getValue(), depth + 1);
+            }
+            shape.append('}');
+        } else if (value.isArray()) {
+            BsonArray array = value.asArray();
+            // Only arrays of sub-documents ($or, $and, pipelines) are part of the shape, $in lists are not
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                shape.append('[');
+                for (int i = 0; i < array.size(); i++) {
+                    if (i > 0) {
+                        shape.append(", ");
+                    }
+                    appendShape(shape, array.get(i), depth + 1);
+                }
+                shape.append(']');
+            } else {
+                shape.append("[?]");
+            }
+        } else {
+            shape.append('?');
+        }
+    }
+
+    /**
+     * Latency statistics of one query shape, in milliseconds.
+     */
+    public record QueryShapeReport(String shape, String command, long count, long failures,
+                                   double meanMillis, double maxMillis, double totalMillis,
+                                   String plan, boolean collectionScan) {
+    }
+
+    private static final class ShapeStats {
+
+        private final String shape;
+        private final String command;
+        private final String database;
+        private final BsonDocument sample;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong lastExplainNanos = new AtomicLong();
+        private volatile String plan;
+        private volatile boolean collectionScan;
+
+        private ShapeStats(String shape, String command, String database, BsonDocument sample) {
+            this.shape = shape;
+            this.command = command;
+            this.database = database;
+            this.sample = sample;
+        }
+
+        private void record(long elapsedNanos, boolean failed) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            if (failed) {
+                failures.increment();
+            }
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        private QueryShapeReport toReport() {
+            long executions = count.sum();
+            double total = totalNanos.sum() / 1_000_000.0;
+            return new QueryShapeReport(shape, command, executions, failures.sum(),
+                    executions > 0 ? total / executions : 0, maxNanos.get() / 1_000_000.0, total,
+                    plan, collectionScan);
+        }
+    }
+}
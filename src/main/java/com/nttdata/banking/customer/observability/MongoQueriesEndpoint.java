@@ -0,0 +1,36 @@
+package com.nttdata.banking.customer.observability;
+
+import com.nttdata.banking.customer.observability.MongoCommandProfiler.QueryShapeReport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/mongoqueries}: the slowest query shapes seen by {@link MongoCommandProfiler}.
+ * <p>
+ * {@code GET ?limit=10&sortBy=max} lists them ({@code sortBy} is {@code mean}, {@code max} or
+ * {@code total}). The endpoint is read-only and query shapes may reveal the data model, so it is not
+ * exposed over the web unless {@code management.endpoints.web.exposure.include} names it.
+ */
+@Component
+@Endpoint(id = "mongoqueries")
+public class MongoQueriesEndpoint {
+
+    private final MongoCommandProfiler profiler;
+    private final int defaultLimit;
+
+    public MongoQueriesEndpoint(MongoCommandProfiler profiler,
+                                @Value("${nttdata.customer.mongo-profiler.top:20}") int defaultLimit) {
+        this.profiler = profiler;
+        this.defaultLimit = defaultLimit;
+    }
+
+    @ReadOperation
+    public List<QueryShapeReport> slowest(@Nullable Integer limit, @Nullable String sortBy) {
+        return profiler.slowest(limit != null && limit > 0 ? limit : defaultLimit, sortBy != null ? sortBy : "mean");
+    }
+}
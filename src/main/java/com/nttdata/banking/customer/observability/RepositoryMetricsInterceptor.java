@@ -0,0 +1,73 @@
+package com.nttdata.banking.customer.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every repository method as {@value #REPOSITORY_TIMER}, tagged with the repository and
+ * method name. Reactive results are timed from subscription to termination, which is when the
+ * query actually runs, rather than while the publisher is assembled.
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    public static final String REPOSITORY_TIMER = "customer.repository";
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(MeterRegistry meterRegistry, String repository) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Timer timer = timers.computeIfAbsent(method, this::register);
+
+        Object result;
+        long start = System.nanoTime();
+        try {
+            result = invocation.proceed();
+        } catch (Throwable ex) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                long subscribed = System.nanoTime();
+                return mono.doFinally(signal -> timer.record(System.nanoTime() - subscribed, TimeUnit.NANOSECONDS));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                long subscribed = System.nanoTime();
+                return flux.doFinally(signal -> timer.record(System.nanoTime() - subscribed, TimeUnit.NANOSECONDS));
+            });
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private Timer register(Method method) {
+        return Timer.builder(REPOSITORY_TIMER)
+                .description("Duration of a repository call, from subscription to completion")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.nttdata.banking.customer.repositories;
+
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.utils.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Read-only lookups of {@link CustomerRepository} with concurrent identical queries merged into one,
+ * for the cache misses and conditional requests that pile up on a hot key. Lookups by id that go
+ * through {@code CustomerCache.getById} are already merged by the cache and do not need this.
+ * <p>
+ * Callers share the returned instances and must not modify them, so write paths keep reading
+ * through the repository.
+ */
+@Component
+public class CoalescingCustomerReader {
+
+    private final CustomerRepository customerRepository;
+    private final SingleFlight<String, Customer> customersByEmail;
+    private final SingleFlight<String, Customer> customersByDocumentNumber;
+    private final SingleFlight<ProjectionKey, Document> projections;
+
+    public CoalescingCustomerReader(CustomerRepository customerRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${nttdata.customer.single-flight.max-keys:10000}") int maxKeys) {
+        this.customerRepository = customerRepository;
+        this.customersByEmail = new SingleFlight<>(maxKeys, savedQueries(meterRegistry, "findByEmail")::increment);
+        this.customersByDocumentNumber = new SingleFlight<>(maxKeys, savedQueries(meterRegistry, "findByDocumentNumber")::increment);
+        this.projections = new SingleFlight<>(maxKeys, savedQueries(meterRegistry, "findProjected")::increment);
+
+        Gauge.builder("customer.single.flight.in.flight", this,
+                        reader -> reader.customersByEmail.inFlight() + reader.customersByDocumentNumber.inFlight() + reader.projections.inFlight())
+                .description("Queries currently shared by concurrent callers")
+                .register(meterRegistry);
+    }
+
+    public Mono<Customer> findByEmail(String email) {
+        return customersByEmail.execute(email, () -> customerRepository.findByEmail(email));
+    }
+
+    public Mono<Customer> findByDocumentNumber(String documentNumber) {
+        return customersByDocumentNumber.execute(documentNumber, () -> customerRepository.findByDocumentNumber(documentNumber));
+    }
+
+    public Mono<Document> findProjectedById(String id, List<String> fields) {
+        return projections.execute(new ProjectionKey("_id", id, fields),
+                () -> customerRepository.findProjectedById(id, fields));
+    }
+
+    public Mono<Document> findProjectedByUniqueKey(String key, String value, List<String> fields) {
+        return projections.execute(new ProjectionKey(key, value, fields),
+                () -> customerRepository.findProjectedByUniqueKey(key, value, fields));
+    }
+
+    private static Counter savedQueries(MeterRegistry meterRegistry, String method) {
+        return Counter.builder("customer.single.flight.saved")
+                .description("Repository queries avoided by joining an identical query in flight")
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    private record ProjectionKey(String field, String value, List<String> fields) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.nttdata.banking.customer.repositories;
+
+import com.nttdata.banking.customer.models.entity.CustomerImport;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerImportRepository extends ReactiveMongoRepository<CustomerImport, String>, CustomerImportRepositoryCustom {
+}
@@ -0,0 +1,18 @@
+package com.nttdata.banking.customer.repositories;
+
+import com.nttdata.banking.customer.models.entity.CustomerImport;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface CustomerImportRepositoryCustom {
+
+    /**
+     * Atomically marks an import as running for the caller, unless it is completed or another run
+     * holds it: a running import is only taken over once it has made no progress since
+     * {@code staleBefore}. Bumps the version, so saves by the run it replaces fail.
+     *
+     * @return the claimed import, or empty if it is missing, completed or still running elsewhere
+     */
+    Mono<CustomerImport> claim(String id, LocalDateTime staleBefore, LocalDateTime now);
+}
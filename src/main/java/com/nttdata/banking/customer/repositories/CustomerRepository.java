@@ -1,13 +1,16 @@
 package com.nttdata.banking.customer.repositories;
 
 import com.nttdata.banking.customer.models.entity.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 @Repository
-public interface CustomerRepository extends ReactiveMongoRepository<Customer, String> {
+public interface CustomerRepository extends ReactiveMongoRepository<Customer, String>, CustomerRepositoryCustom {
 
     Mono<Customer> findByEmail(String email);
 
@@ -15,20 +18,20 @@ public interface CustomerRepository extends ReactiveMongoRepository<Customer, St
 
     Mono<Customer> findByRuc(String ruc);
 
-    Mono<Boolean> existsByEmail(String email);
+    Flux<Customer> findByActiveTrue();
 
-    Mono<Boolean> existsByDocumentNumber(String documentNumber);
+    Flux<Customer> findByIdIn(Collection<String> ids);
 
-    Mono<Boolean> existsByRuc(String ruc);
+    Flux<Customer> findByEmailIn(Collection<String> emails);
 
-    Flux<Customer> findByActiveTrue();
+    Flux<Customer> findByDocumentNumberIn(Collection<String> documentNumbers);
 
-    Flux<Customer> findByActiveTrueAndCustomerTypeContaining(String customerType);
+    Flux<Customer> findAllByOrderByIdAsc(Limit limit);
 
-    Mono<Boolean> existsByEmailAndIdNot(String email, String id);
+    Flux<Customer> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
 
-    Mono<Boolean> existsByDocumentNumberAndIdNot(String documentNumber, String id);
+    Flux<Customer> findByActiveTrueOrderByIdAsc(Limit limit);
 
-    Mono<Boolean> existsByRucAndIdNot(String ruc, String id);
+    Flux<Customer> findByActiveTrueAndIdGreaterThanOrderByIdAsc(String id, Limit limit);
 }
 
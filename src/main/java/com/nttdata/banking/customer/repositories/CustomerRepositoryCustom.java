@@ -0,0 +1,179 @@
+package com.nttdata.banking.customer.repositories;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.models.entity.Customer;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Queries that derived repository methods cannot express, implemented with
+ * {@link org.springframework.data.mongodb.core.ReactiveMongoTemplate}.
+ */
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Streams customers matching the optional filters using a tuned cursor batch size.
+     *
+     * @param active       only customers with this active flag, or all when {@code null}
+     * @param customerType only customers having this type, or all when {@code null}
+     * @param batchSize    number of documents fetched per cursor round trip
+     */
+    Flux<Customer> streamAll(Boolean active, CustomerType customerType, int batchSize);
+
+    /**
+     * Keyset-paginated listing by segment, sorted by {@code _id}. The query is pinned with a hint to the
+     * compound index led by the most selective filter present, so it can never fall back to a collection scan.
+     *
+     * @param customerTypes customers having all these types; may be empty
+     * @param active        active flag, or {@code null} for both
+     * @param documentType  document type, or {@code null} for all
+     * @param afterId       last id of the previous page, or {@code null} for the first page
+     * @throws IllegalArgumentException if no filter is given
+     */
+    Flux<Customer> findFiltered(Set<CustomerType> customerTypes, Boolean active, DocumentType documentType, String afterId, int limit);
+
+    /**
+     * Reads only the given fields of one customer as a raw document, without entity conversion.
+     *
+     * @param fields field names as stored in Mongo
+     */
+    Mono<Document> findProjectedById(String id, List<String> fields);
+
+    /**
+     * Same as {@link #findProjectedById} for a customer found by a unique field.
+     *
+     * @param key   unique field, {@code email} or {@code documentNumber}
+     * @param value value of that field
+     */
+    Mono<Document> findProjectedByUniqueKey(String key, String value, List<String> fields);
+
+    /**
+     * Reads only the given fields as raw documents, without entity conversion. {@code _id} is always included.
+     *
+     * @param afterId keyset position, or {@code null} to start from the beginning
+     * @param limit   page size with {@code _id} ordering, or {@code null} to stream everything in natural order
+     * @param fields  field names as stored in Mongo
+     */
+    Flux<Document> findProjected(boolean activeOnly, String afterId, Integer limit, List<String> fields);
+
+    /**
+     * Streams the unique fields ({@code email}, {@code documentNumber} and {@code ruc}) of every customer.
+     */
+    Flux<Customer> streamUniqueKeys(int batchSize);
+
+    /**
+     * Finds the customers holding any of the given unique values with a single {@code $or} of {@code $in}
+     * queries. Only {@code email}, {@code documentNumber} and {@code ruc} are returned.
+     */
+    Flux<Customer> findByUniqueFields(Collection<String> emails, Collection<String> documentNumbers, Collection<String> rucs);
+
+    /**
+     * Finds, in one round trip, the customers other than {@code excludeId} that already use the given
+     * email, document number or RUC. Only {@code email}, {@code documentNumber} and {@code ruc} are returned.
+     *
+     * @param email          ignored when {@code null}
+     * @param documentNumber ignored when {@code null}
+     * @param ruc            ignored when {@code null}
+     * @param excludeId      the customer being updated, or {@code null} on create
+     */
+    Flux<Customer> findUniqueFieldConflicts(String email, String documentNumber, String ruc, String excludeId);
+
+    /**
+     * Inserts all customers with one unordered bulk write.
+     *
+     * @return the write errors keyed by position in {@code customers}, empty when every insert succeeded
+     */
+    Mono<List<BulkWriteError>> insertUnordered(List<Customer> customers);
+
+    /**
+     * Applies {@code update} and increments the version in a single {@code findAndModify}, provided the
+     * stored version equals {@code expectedVersion} and the document meets {@code requirements}. A
+     * document without version counts as version 0.
+     *
+     * @param expectedVersion the version the caller read, or {@code null} to accept any version
+     * @param requirements    further conditions on the stored document, or {@code null}
+     * @param returnNew       return the document after the update instead of before it
+     * @return the document before or after the update, empty when no document matched
+     */
+    Mono<Customer> findAndModifyVersioned(String id, Long expectedVersion, Criteria requirements, Update update, boolean returnNew);
+
+    /**
+     * Replaces the stored document with {@code customer} provided its version is still
+     * {@code expectedVersion}, and sets the version of {@code customer} to the next one.
+     *
+     * @return the document as it was before the replacement, empty when no document matched
+     */
+    Mono<Customer> replaceVersioned(Customer customer, long expectedVersion);
+
+    /**
+     * Deletes the customer in a single operation.
+     *
+     * @return the deleted document, empty when no customer has that id
+     */
+    Mono<Customer> findAndRemoveById(String id);
+
+    /**
+     * Sets {@code active} and {@code updatedAt} with one atomic {@code $set}, only if the flag actually changes.
+     *
+     * @return the updated document, empty when the customer does not exist or already had that flag
+     */
+    Mono<Customer> updateActive(String id, boolean active, LocalDateTime updatedAt);
+
+    /**
+     * One tier of the customer search, sorted by {@code _id}. Exact matches read the
+     * {@code searchKeys, _id} index and prefix matches the {@code searchPrefixes, _id} index, both
+     * with equality bounds, so the index provides the order and the query stops at {@code limit}.
+     *
+     * @param terms   normalized terms the customer must all have
+     * @param exact   {@code true} for customers whose keys equal every term; {@code false} for those
+     *                whose keys start with every term but are not an exact match
+     * @param maxTime server side time limit of the query
+     */
+    Flux<Customer> search(List<String> terms, boolean exact, String afterId, int limit, Duration maxTime);
+
+    /**
+     * Streams the customers that have no {@code searchPrefixes} yet, with the fields the keys are built from.
+     */
+    Flux<Customer> findWithoutSearchKeys(int batchSize);
+
+    /**
+     * Sets {@code searchKeys} and {@code searchPrefixes} of each customer in one unordered bulk write.
+     * A customer is only updated if it still has the version it was read with; a newer write has
+     * already set its own keys.
+     *
+     * @return the number of customers updated
+     */
+    Mono<Long> updateSearchKeys(List<Customer> customers);
+
+    /**
+     * Counts the customers by type, by document type and by active flag in one {@code $facet} pass.
+     * A customer with several types is counted once under each of them.
+     *
+     * @return a document with the {@code byCustomerType}, {@code byDocumentType} and {@code byActive}
+     * arrays of {@code {_id, count}} groups
+     */
+    Mono<Document> aggregateStatistics();
+
+    /**
+     * Tails the change stream of the customers collection. Inserts, updates and replaces carry the
+     * current document; deletes always pass the filters since the document is gone.
+     *
+     * @param customerTypes only changes to customers having all these types; may be empty
+     * @param active        only changes leaving the customer with this active flag, or all when {@code null}
+     * @param resumeAfter   resume token of the last change seen, or {@code null} to start from now
+     */
+    Flux<ChangeStreamEvent<Customer>> watchChanges(Set<CustomerType> customerTypes, Boolean active, BsonValue resumeAfter);
+}
@@ -0,0 +1,37 @@
+package com.nttdata.banking.customer.repositories.impl;
+
+import com.nttdata.banking.customer.enums.ImportStatus;
+import com.nttdata.banking.customer.models.entity.CustomerImport;
+import com.nttdata.banking.customer.repositories.CustomerImportRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class CustomerImportRepositoryCustomImpl implements CustomerImportRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<CustomerImport> claim(String id, LocalDateTime staleBefore, LocalDateTime now) {
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("id").is(id),
+                Criteria.where("status").ne(ImportStatus.COMPLETED),
+                new Criteria().orOperator(
+                        Criteria.where("status").ne(ImportStatus.RUNNING),
+                        Criteria.where("updatedAt").lt(staleBefore))));
+        Update update = new Update()
+                .set("status", ImportStatus.RUNNING)
+                .unset("failure")
+                .set("updatedAt", now)
+                .inc("version", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), CustomerImport.class);
+    }
+}
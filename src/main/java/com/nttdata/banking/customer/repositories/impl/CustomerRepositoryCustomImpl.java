@@ -0,0 +1,374 @@
+package com.nttdata.banking.customer.repositories.impl;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepositoryCustom;
+import com.nttdata.banking.customer.search.SearchKeys;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@RequiredArgsConstructor
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+    private static final List<Boolean> BOTH_ACTIVE_STATES = List.of(true, false);
+    private static final List<String> CHANGE_OPERATIONS = List.of("insert", "update", "replace", "delete");
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<Customer> streamAll(Boolean active, CustomerType customerType, int batchSize) {
+        Query query = new Query();
+        if (active != null) {
+            query.addCriteria(Criteria.where("active").is(active));
+        }
+        if (customerType != null) {
+            query.addCriteria(Criteria.where("customerType").is(customerType));
+        }
+        query.cursorBatchSize(batchSize);
+
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findFiltered(Set<CustomerType> customerTypes, Boolean active, DocumentType documentType, String afterId, int limit) {
+        String index;
+        if (!customerTypes.isEmpty()) {
+            index = Customer.CUSTOMER_TYPE_ACTIVE_ID_INDEX;
+        } else if (documentType != null) {
+            index = Customer.DOCUMENT_TYPE_ACTIVE_ID_INDEX;
+        } else if (active != null) {
+            index = Customer.ACTIVE_ID_INDEX;
+        } else {
+            throw new IllegalArgumentException("At least one filter is required");
+        }
+
+        Criteria criteria = new Criteria();
+        if (!customerTypes.isEmpty()) {
+            criteria.and("customerType").all(customerTypes);
+        }
+        // Matching both states explicitly lets Mongo merge the two index ranges already sorted by _id
+        criteria.and("active").in(active != null ? List.of(active) : BOTH_ACTIVE_STATES);
+        if (documentType != null) {
+            criteria.and("documentType").is(documentType);
+        }
+        if (afterId != null) {
+            criteria.and("id").gt(afterId);
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(limit)
+                .withHint(index);
+
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    @Override
+    public Mono<Document> findProjectedById(String id, List<String> fields) {
+        Query query = new Query(Criteria.where("_id").is(ObjectId.isValid(id) ? new ObjectId(id) : id));
+        query.fields().include(fields.toArray(String[]::new));
+
+        return mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Customer.class));
+    }
+
+    @Override
+    public Mono<Document> findProjectedByUniqueKey(String key, String value, List<String> fields) {
+        Query query = new Query(Criteria.where(key).is(value));
+        query.fields().include(fields.toArray(String[]::new));
+
+        return mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Customer.class));
+    }
+
+    @Override
+    public Flux<Document> findProjected(boolean activeOnly, String afterId, Integer limit, List<String> fields) {
+        Criteria criteria = new Criteria();
+        if (activeOnly) {
+            criteria.and("active").is(true);
+        }
+        if (afterId != null) {
+            criteria.and("_id").gt(new ObjectId(afterId));
+        }
+        Query query = new Query(criteria);
+        query.fields().include(fields.toArray(String[]::new));
+        if (limit != null) {
+            query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        }
+
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Customer.class));
+    }
+
+    @Override
+    public Flux<Customer> streamUniqueKeys(int batchSize) {
+        Query query = uniqueFieldsQuery(new Criteria());
+        query.cursorBatchSize(batchSize);
+
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findByUniqueFields(Collection<String> emails, Collection<String> documentNumbers, Collection<String> rucs) {
+        List<Criteria> anyOf = new ArrayList<>(3);
+        if (!emails.isEmpty()) {
+            anyOf.add(Criteria.where("email").in(emails));
+        }
+        if (!documentNumbers.isEmpty()) {
+            anyOf.add(Criteria.where("documentNumber").in(documentNumbers));
+        }
+        if (!rucs.isEmpty()) {
+            anyOf.add(Criteria.where("ruc").in(rucs));
+        }
+        if (anyOf.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return mongoTemplate.find(uniqueFieldsQuery(new Criteria().orOperator(anyOf)), Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findUniqueFieldConflicts(String email, String documentNumber, String ruc, String excludeId) {
+        List<Criteria> anyOf = new ArrayList<>(3);
+        if (email != null) {
+            anyOf.add(Criteria.where("email").is(email));
+        }
+        if (documentNumber != null) {
+            anyOf.add(Criteria.where("documentNumber").is(documentNumber));
+        }
+        if (ruc != null) {
+            anyOf.add(Criteria.where("ruc").is(ruc));
+        }
+        if (anyOf.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Criteria criteria = new Criteria().orOperator(anyOf);
+        if (excludeId != null) {
+            criteria = new Criteria().andOperator(Criteria.where("id").ne(excludeId), criteria);
+        }
+
+        // Each unique field can be held by at most one other customer
+        return mongoTemplate.find(uniqueFieldsQuery(criteria).limit(anyOf.size()), Customer.class);
+    }
+
+    @Override
+    public Mono<List<BulkWriteError>> insertUnordered(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class)
+                .insert(customers)
+                .execute()
+                .thenReturn(List.<BulkWriteError>of())
+                .onErrorResume(error -> {
+                    List<BulkWriteError> writeErrors = findWriteErrors(error);
+                    return writeErrors != null ? Mono.just(writeErrors) : Mono.error(error);
+                });
+    }
+
+    @Override
+    public Mono<Customer> findAndModifyVersioned(String id, Long expectedVersion, Criteria requirements, Update update, boolean returnNew) {
+        Query query = versionedQuery(id, expectedVersion);
+        if (requirements != null) {
+            query.addCriteria(requirements);
+        }
+        return mongoTemplate.findAndModify(query, update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(returnNew), Customer.class);
+    }
+
+    @Override
+    public Mono<Customer> replaceVersioned(Customer customer, long expectedVersion) {
+        customer.setVersion(expectedVersion + 1);
+        return mongoTemplate.findAndReplace(versionedQuery(customer.getId(), expectedVersion), customer);
+    }
+
+    @Override
+    public Mono<Customer> findAndRemoveById(String id) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id)), Customer.class);
+    }
+
+    @Override
+    public Mono<Customer> updateActive(String id, boolean active, LocalDateTime updatedAt) {
+        Query query = new Query(Criteria.where("id").is(id).and("active").ne(active));
+        Update update = new Update()
+                .set("active", active)
+                .set("updatedAt", updatedAt)
+                .inc("version", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> search(List<String> terms, boolean exact, String afterId, int limit, Duration maxTime) {
+        Criteria criteria;
+        String index;
+        if (exact) {
+            criteria = Criteria.where("searchKeys").all(longestFirst(terms));
+            index = Customer.SEARCH_KEYS_ID_INDEX;
+        } else {
+            List<Criteria> conditions = new ArrayList<>(3);
+            List<String> prefixes = terms.stream().map(SearchKeys::prefixOf).distinct().toList();
+            conditions.add(Criteria.where("searchPrefixes").all(longestFirst(prefixes)));
+            // Terms longer than the stored prefixes are checked on the keys of the customers found
+            List<Pattern> longTerms = terms.stream()
+                    .filter(term -> term.length() > SearchKeys.MAX_PREFIX_LENGTH)
+                    .map(term -> Pattern.compile("^" + Pattern.quote(term)))
+                    .toList();
+            if (!longTerms.isEmpty()) {
+                conditions.add(Criteria.where("searchKeys").all(longTerms));
+            }
+            conditions.add(new Criteria().norOperator(Criteria.where("searchKeys").all(terms)));
+            criteria = new Criteria().andOperator(conditions);
+            index = Customer.SEARCH_PREFIXES_ID_INDEX;
+        }
+        if (afterId != null) {
+            criteria = new Criteria().andOperator(criteria, Criteria.where("id").gt(afterId));
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "id"))
+                .limit(limit)
+                .maxTime(maxTime)
+                .withHint(index);
+
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    @Override
+    public Flux<Customer> findWithoutSearchKeys(int batchSize) {
+        // Equality with null matches missing fields and reads the index instead of scanning
+        Query query = new Query(Criteria.where("searchPrefixes").is(null))
+                .withHint(Customer.SEARCH_PREFIXES_ID_INDEX);
+        query.fields().include("firstName", "lastName", "companyName", "email", "version");
+        query.cursorBatchSize(batchSize);
+
+        return mongoTemplate.find(query, Customer.class);
+    }
+
+    @Override
+    public Mono<Long> updateSearchKeys(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return Mono.just(0L);
+        }
+        ReactiveBulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+        for (Customer customer : customers) {
+            long version = customer.getVersion() != null ? customer.getVersion() : 0L;
+            bulkOperations.updateOne(versionedQuery(customer.getId(), version), new Update()
+                    .set("searchKeys", customer.getSearchKeys())
+                    .set("searchPrefixes", customer.getSearchPrefixes()));
+        }
+        return bulkOperations.execute().map(result -> (long) result.getModifiedCount());
+    }
+
+    @Override
+    public Mono<Document> aggregateStatistics() {
+        return mongoTemplate.aggregate(Aggregation.newAggregation(Customer.class,
+                        Aggregation.facet(
+                                        Aggregation.unwind("customerType"),
+                                        Aggregation.group("customerType").count().as("count"))
+                                .as("byCustomerType")
+                                .and(Aggregation.group("documentType").count().as("count"))
+                                .as("byDocumentType")
+                                .and(Aggregation.group("active").count().as("count"))
+                                .as("byActive")),
+                        Document.class)
+                .next();
+    }
+
+    @Override
+    public Flux<ChangeStreamEvent<Customer>> watchChanges(Set<CustomerType> customerTypes, Boolean active, BsonValue resumeAfter) {
+        Document documentFilter = new Document();
+        if (!customerTypes.isEmpty()) {
+            documentFilter.append("fullDocument.customerType", new Document("$all", customerTypes.stream().map(Enum::name).toList()));
+        }
+        if (active != null) {
+            documentFilter.append("fullDocument.active", active);
+        }
+
+        Document match = new Document("operationType", new Document("$in", CHANGE_OPERATIONS));
+        if (!documentFilter.isEmpty()) {
+            match = new Document("$and", List.of(match,
+                    new Document("$or", List.of(new Document("operationType", "delete"), documentFilter))));
+        }
+        Document filter = new Document("$match", match);
+
+        return mongoTemplate.changeStream(Customer.class)
+                .watchCollection(Customer.class)
+                .withOptions(options -> {
+                    options.fullDocumentLookup(FullDocument.UPDATE_LOOKUP).filter(filter);
+                    if (resumeAfter != null) {
+                        options.resumeAfter(resumeAfter);
+                    }
+                })
+                .listen();
+    }
+
+    /**
+     * The index bounds of an {@code $all} come from its first value, so the most selective term goes first.
+     */
+    private static List<String> longestFirst(List<String> terms) {
+        return terms.stream().sorted(Comparator.comparingInt(String::length).reversed()).toList();
+    }
+
+    private static Query versionedQuery(String id, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion == null) {
+            return new Query(criteria);
+        }
+        if (expectedVersion == 0L) {
+            return new Query(criteria.orOperator(
+                    Criteria.where("version").is(0L),
+                    Criteria.where("version").exists(false)));
+        }
+        return new Query(criteria.and("version").is(expectedVersion));
+    }
+
+    private static Query uniqueFieldsQuery(Criteria criteria) {
+        Query query = new Query(criteria);
+        query.fields().include("email", "documentNumber", "ruc");
+        return query;
+    }
+
+    /**
+     * Unordered bulk writes report per-document failures in an exception; depending on the
+     * translation path it is either Spring's {@link BulkOperationException} or the driver's one.
+     */
+    private static List<BulkWriteError> findWriteErrors(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof BulkOperationException bulkException) {
+                return bulkException.getErrors();
+            }
+            if (current instanceof MongoBulkWriteException bulkException) {
+                return bulkException.getWriteErrors();
+            }
+        }
+        return null;
+    }
+}
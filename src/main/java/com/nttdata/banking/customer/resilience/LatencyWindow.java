@@ -0,0 +1,49 @@
+package com.nttdata.banking.customer.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The latest latencies of one operation in a ring buffer. Percentiles are computed from a sorted
+ * copy at most once per refresh interval and cached in between, so reading one is usually free.
+ */
+final class LatencyWindow {
+
+    private static final long REFRESH_NANOS = 1_000_000_000L;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private volatile long cachedPercentile = -1;
+    private volatile long computedAt;
+
+    LatencyWindow(int size) {
+        this.samples = new AtomicLongArray(size);
+    }
+
+    void record(long nanos) {
+        samples.set((int) (count.getAndIncrement() % samples.length()), nanos);
+    }
+
+    /**
+     * @return the percentile in nanoseconds, or {@code -1} before {@code minSamples} calls were recorded
+     */
+    long percentile(double percentile, int minSamples) {
+        long recorded = count.get();
+        if (recorded < minSamples) {
+            return -1;
+        }
+        long now = System.nanoTime();
+        if (cachedPercentile < 0 || now - computedAt > REFRESH_NANOS) {
+            int size = (int) Math.min(recorded, samples.length());
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            cachedPercentile = sorted[Math.max(0, Math.min(size - 1, (int) Math.ceil(percentile * size) - 1))];
+            computedAt = now;
+        }
+        return cachedPercentile;
+    }
+}
@@ -0,0 +1,142 @@
+package com.nttdata.banking.customer.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count-based circuit breaker shared by all methods of a repository, since they all depend on the
+ * same database.
+ * <p>
+ * While closed, the outcomes of the last {@code windowSize} calls are kept; when the failure rate
+ * reaches the threshold the circuit opens and calls are refused for {@code openDuration}. Then up to
+ * {@code halfOpenCalls} trial calls are let through: if all of them succeed the circuit closes, and
+ * the first failure opens it again.
+ */
+@Slf4j
+final class RepositoryCircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final ResilienceProperties.CircuitBreaker settings;
+    private final long openNanos;
+    private final boolean[] failures;
+    private volatile State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failureCount;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    RepositoryCircuitBreaker(String name, ResilienceProperties.CircuitBreaker settings) {
+        this.name = name;
+        this.settings = settings;
+        this.openNanos = settings.openDuration().toNanos();
+        this.failures = new boolean[settings.windowSize()];
+    }
+
+    /**
+     * @return {@code false} if the call must be refused; otherwise exactly one of {@link #onSuccess},
+     * {@link #onFailure} or {@link #onCancel} must follow
+     */
+    boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                trialPermits = settings.halfOpenCalls();
+                trialSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialPermits == 0) {
+                    return false;
+                }
+                trialPermits--;
+            }
+            return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialSuccesses >= settings.halfOpenCalls()) {
+                reset();
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= settings.minimumCalls() && failureCount >= settings.failureRateThreshold() * recorded) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * The caller gave up before an outcome; a trial permit is handed back.
+     */
+    synchronized void onCancel() {
+        if (state == State.HALF_OPEN && trialPermits < settings.halfOpenCalls()) {
+            trialPermits++;
+        }
+    }
+
+    /**
+     * Time left until trial calls are let through.
+     */
+    synchronized long remainingOpenNanos() {
+        return state == State.OPEN ? Math.max(0, openNanos - (System.nanoTime() - openedAt)) : 0;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == failures.length) {
+            if (failures[next]) {
+                failureCount--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[next] = failed;
+        if (failed) {
+            failureCount++;
+        }
+        next = (next + 1) % failures.length;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        reset();
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        next = 0;
+        recorded = 0;
+        failureCount = 0;
+    }
+
+    private void transition(State target) {
+        if (state != target) {
+            log.warn("Circuit breaker {} changed from {} to {}", name, state, target);
+            state = target;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.nttdata.banking.customer.resilience;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import com.nttdata.banking.customer.exception.RepositoryUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Guards every reactive repository method with a deadline and the repository's circuit breaker, and
+ * hedges idempotent single-result reads.
+ * <p>
+ * Publishers returned by the repository are cold and run their query on subscription, so a hedge
+ * is a second subscription to the same {@code Mono}, started once the first has been running longer
+ * than the configured percentile of recent calls. Whichever answers first wins and the other is
+ * cancelled.
+ * <p>
+ * Streams get the deadline for their first element only and are never hedged. After that, gaps
+ * between elements follow the demand of the consumer, so a slow client is not mistaken for a slow
+ * database, and a stream that misses its deadline is not counted against the circuit either.
+ * <p>
+ * Long-running methods, whose duration follows the size of the data rather than the health of the
+ * database, get their own deadline, and missing it does not count against the circuit.
+ * <p>
+ * A deadline only stops waiting: a write that times out may still be applied by the server.
+ */
+public class RepositoryResilienceInterceptor implements MethodInterceptor {
+
+    private static final int LATENCY_WINDOW_SIZE = 1024;
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final RepositoryCircuitBreaker circuitBreaker;
+    private final Counter rejections;
+    private final Map<Method, Policy> policies = new ConcurrentHashMap<>();
+
+    public RepositoryResilienceInterceptor(ResilienceProperties properties, MeterRegistry meterRegistry, String repository) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.repository = repository;
+        this.circuitBreaker = new RepositoryCircuitBreaker(repository, properties.circuitBreaker());
+
+        Gauge.builder("customer.repository.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half open")
+                .tag("repository", repository)
+                .register(meterRegistry);
+        this.rejections = Counter.builder("customer.repository.circuit.rejected")
+                .description("Repository calls refused while the circuit was open")
+                .tag("repository", repository)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class || properties.excludedMethods().contains(method.getName())) {
+            return invocation.proceed();
+        }
+
+        Object result = invocation.proceed();
+        if (result instanceof Mono<?> mono) {
+            return policies.computeIfAbsent(method, Policy::new).guard(mono);
+        }
+        if (result instanceof Flux<?> flux) {
+            return policies.computeIfAbsent(method, Policy::new).guard(flux);
+        }
+        return result;
+    }
+
+    /**
+     * Only failures that say something about the health of the database count against the circuit;
+     * duplicate keys and other rejected writes do not, nor do queries stopped by their own
+     * {@code maxTime}, which says the query was expensive.
+     */
+    private static boolean isInfrastructureFailure(Throwable error) {
+        if (isServerTimeout(error)) {
+            return false;
+        }
+        return error instanceof RepositoryUnavailableException
+                || error instanceof DataAccessResourceFailureException
+                || error instanceof TransientDataAccessException
+                || error instanceof MongoSocketException
+                || error instanceof MongoTimeoutException;
+    }
+
+    private static boolean isServerTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoExecutionTimeoutException || cause instanceof QueryTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RepositoryUnavailableException circuitOpen() {
+        rejections.increment();
+        return new RepositoryUnavailableException("Database unavailable, " + repository + " calls are suspended",
+                Duration.ofNanos(circuitBreaker.remainingOpenNanos()));
+    }
+
+    private final class Policy {
+        private final String name;
+        private final Duration deadline;
+        private final boolean hedged;
+        private final boolean longRunning;
+        private final LatencyWindow latencies = new LatencyWindow(LATENCY_WINDOW_SIZE);
+        private final Counter timeouts;
+        private final Counter hedges;
+        private final Counter hedgeWins;
+
+        private Policy(Method method) {
+            this.name = method.getName();
+            this.deadline = properties.timeoutFor(name);
+            this.hedged = properties.hedge().enabled() && isIdempotentRead(name);
+            this.longRunning = properties.isLongRunning(name);
+            this.timeouts = counter("customer.repository.timeouts", "Repository calls that missed their deadline");
+            this.hedges = counter("customer.repository.hedges", "Second attempts started for slow reads");
+            this.hedgeWins = counter("customer.repository.hedges.won", "Second attempts that answered first");
+        }
+
+        private <T> Mono<T> guard(Mono<T> source) {
+            return Mono.defer(() -> {
+                if (!circuitBreaker.tryAcquire()) {
+                    return Mono.error(circuitOpen());
+                }
+                Mono<T> attempt = timed(source);
+                return (hedged ? hedge(attempt) : attempt)
+                        .timeout(deadline)
+                        .doOnError(error -> {
+                            if (!(error instanceof TimeoutException)) {
+                                recordError(error);
+                            } else if (longRunning) {
+                                circuitBreaker.onCancel();
+                            } else {
+                                circuitBreaker.onFailure();
+                            }
+                        })
+                        .onErrorMap(TimeoutException.class, this::deadlineExceeded)
+                        .doOnSuccess(value -> circuitBreaker.onSuccess())
+                        .doOnCancel(circuitBreaker::onCancel);
+            });
+        }
+
+        private <T> Flux<T> guard(Flux<T> source) {
+            return Flux.defer(() -> {
+                if (!circuitBreaker.tryAcquire()) {
+                    return Flux.error(circuitOpen());
+                }
+                return source.timeout(Mono.delay(deadline), element -> Mono.never())
+                        .doOnError(error -> {
+                            if (error instanceof TimeoutException) {
+                                circuitBreaker.onCancel();
+                            } else {
+                                recordError(error);
+                            }
+                        })
+                        .onErrorMap(TimeoutException.class, this::deadlineExceeded)
+                        .doOnComplete(circuitBreaker::onSuccess)
+                        .doOnCancel(circuitBreaker::onCancel);
+            });
+        }
+
+        private <T> Mono<T> timed(Mono<T> source) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return source.doOnSuccess(value -> latencies.record(System.nanoTime() - start));
+            });
+        }
+
+        /**
+         * No hedge until enough calls were observed to know what slow means for this method.
+         */
+        private <T> Mono<T> hedge(Mono<T> attempt) {
+            ResilienceProperties.Hedge settings = properties.hedge();
+            long threshold = latencies.percentile(settings.percentile(), settings.minSamples());
+            if (threshold < 0) {
+                return attempt;
+            }
+            Duration delay = Duration.ofNanos(Math.max(threshold, settings.minDelay().toNanos()));
+            Mono<T> second = Mono.delay(delay)
+                    .then(Mono.defer(() -> {
+                        hedges.increment();
+                        return attempt.doOnSuccess(value -> hedgeWins.increment());
+                    }));
+            return Mono.firstWithSignal(attempt, second);
+        }
+
+        private RepositoryUnavailableException deadlineExceeded(TimeoutException ex) {
+            timeouts.increment();
+            return new RepositoryUnavailableException(repository + "." + name + " did not complete within " + deadline,
+                    Duration.ofSeconds(1), ex);
+        }
+
+        private void recordError(Throwable error) {
+            if (isInfrastructureFailure(error)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        }
+
+        private Counter counter(String meter, String description) {
+            return Counter.builder(meter)
+                    .description(description)
+                    .tag("repository", repository)
+                    .tag("method", name)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * {@code findAndModify}, {@code findAndReplace} and {@code findAndRemove} are writes.
+         */
+        private static boolean isIdempotentRead(String method) {
+            return (method.startsWith("find") && !method.startsWith("findAnd"))
+                    || method.startsWith("exists") || method.startsWith("count");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.nttdata.banking.customer.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds {@link RepositoryResilienceInterceptor} to the proxy of every Spring Data repository. It is
+ * placed first in the advice chain, so the repository timers measure each attempt on its own.
+ */
+@Component
+public class RepositoryResiliencePostProcessor implements BeanPostProcessor {
+
+    private static final String PREFIX = "nttdata.customer.resilience";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Environment environment;
+
+    public RepositoryResiliencePostProcessor(ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        ResilienceProperties properties = Binder.get(environment).bindOrCreate(PREFIX, ResilienceProperties.class);
+                        if (properties.enabled()) {
+                            proxyFactory.addAdvice(0, new RepositoryResilienceInterceptor(properties, meterRegistry.getObject(),
+                                    repositoryInformation.getRepositoryInterface().getSimpleName()));
+                        }
+                    }));
+        }
+        return bean;
+    }
+}
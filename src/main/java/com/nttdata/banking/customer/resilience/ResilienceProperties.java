@@ -0,0 +1,67 @@
+package com.nttdata.banking.customer.resilience;
+
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings under {@code nttdata.customer.resilience}.
+ *
+ * @param timeout            deadline of a repository call; for streams, the longest wait for the first element
+ * @param timeouts           deadline per repository method name, overriding {@code timeout}
+ * @param excludedMethods    methods left untouched, such as the change stream that may idle indefinitely
+ * @param longRunningMethods methods whose duration grows with the collection or the batch, such as the
+ *                           statistics aggregation, bulk inserts and the search keys backfill; missing
+ *                           their deadline does not count against the circuit
+ * @param longRunningTimeout deadline of the long-running methods that {@code timeouts} does not name
+ */
+public record ResilienceProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("PT5S") Duration timeout,
+        Map<String, Duration> timeouts,
+        @DefaultValue("watchChanges") Set<String> excludedMethods,
+        @DefaultValue({"aggregateStatistics", "insertUnordered", "updateSearchKeys"}) Set<String> longRunningMethods,
+        @DefaultValue("PT2M") Duration longRunningTimeout,
+        @DefaultValue Hedge hedge,
+        @DefaultValue CircuitBreaker circuitBreaker) {
+
+    public Duration timeoutFor(String method) {
+        Duration override = timeouts != null ? timeouts.get(method) : null;
+        if (override != null) {
+            return override;
+        }
+        return isLongRunning(method) ? longRunningTimeout : timeout;
+    }
+
+    public boolean isLongRunning(String method) {
+        return longRunningMethods.contains(method);
+    }
+
+    /**
+     * @param percentile  a second attempt starts once the first has run longer than this share of
+     *                    recent calls to the same method
+     * @param minDelay    lower bound of that delay, so a fast backend is not sent duplicates
+     * @param minSamples  calls observed before hedging starts
+     */
+    public record Hedge(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("0.95") double percentile,
+            @DefaultValue("PT0.02S") Duration minDelay,
+            @DefaultValue("100") int minSamples) {
+    }
+
+    /**
+     * @param failureRateThreshold share of failed calls among the last {@code windowSize} that opens the circuit
+     * @param openDuration         how long calls are refused before trial calls are let through
+     * @param halfOpenCalls        trial calls that must all succeed to close the circuit again
+     */
+    public record CircuitBreaker(
+            @DefaultValue("0.5") double failureRateThreshold,
+            @DefaultValue("50") int windowSize,
+            @DefaultValue("20") int minimumCalls,
+            @DefaultValue("PT30S") Duration openDuration,
+            @DefaultValue("5") int halfOpenCalls) {
+    }
+}
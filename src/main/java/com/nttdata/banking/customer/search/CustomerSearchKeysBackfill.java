@@ -0,0 +1,49 @@
+package com.nttdata.banking.customer.search;
+
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes {@code searchKeys} and {@code searchPrefixes} for customers stored before search, or before
+ * prefixes, existed. Finding them is an index lookup on missing prefixes, so once the collection is
+ * backfilled the startup check is cheap.
+ */
+@Component
+@Slf4j
+public class CustomerSearchKeysBackfill {
+
+    private final CustomerRepository customerRepository;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public CustomerSearchKeysBackfill(CustomerRepository customerRepository,
+                                      @Value("${nttdata.customer.search.backfill.enabled:true}") boolean enabled,
+                                      @Value("${nttdata.customer.search.backfill.batch-size:500}") int batchSize) {
+        this.customerRepository = customerRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        customerRepository.findWithoutSearchKeys(batchSize)
+                .doOnNext(SearchKeys::apply)
+                .buffer(batchSize)
+                .concatMap(customerRepository::updateSearchKeys)
+                .reduce(0L, Long::sum)
+                .subscribe(
+                        updated -> {
+                            if (updated > 0) {
+                                log.info("Search keys backfilled for {} customers", updated);
+                            }
+                        },
+                        error -> log.error("Error backfilling customer search keys: {}", error.getMessage()));
+    }
+}
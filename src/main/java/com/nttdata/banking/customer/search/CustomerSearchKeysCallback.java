@@ -0,0 +1,21 @@
+package com.nttdata.banking.customer.search;
+
+import com.nttdata.banking.customer.models.entity.Customer;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Recomputes {@code searchKeys} and {@code searchPrefixes} whenever a whole customer is written (save, insert, replace and
+ * bulk insert). Partial updates bypass entity callbacks, so PATCH writes the keys itself.
+ */
+@Component
+public class CustomerSearchKeysCallback implements ReactiveBeforeConvertCallback<Customer> {
+
+    @Override
+    public Publisher<Customer> onBeforeConvert(Customer customer, String collection) {
+        SearchKeys.apply(customer);
+        return Mono.just(customer);
+    }
+}
@@ -0,0 +1,89 @@
+package com.nttdata.banking.customer.search;
+
+import com.nttdata.banking.customer.models.entity.Customer;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized search tokens of a customer, stored in {@code searchKeys} and indexed together with
+ * {@code _id}. Names, company name and email are split into words, lower-cased and accent-folded,
+ * so "José Núñez" is found by "jose", "nun" or "NÚÑ". Queries go through the same normalization.
+ * <p>
+ * Every prefix of the keys, up to {@link #MAX_PREFIX_LENGTH} characters, is stored as well in
+ * {@code searchPrefixes}. Both kinds of match are then equality lookups, for which the compound
+ * index returns customers already in {@code _id} order; a prefix range over {@code searchKeys}
+ * would cover many key values and need an in-memory sort of every match.
+ */
+public final class SearchKeys {
+
+    public static final int MIN_QUERY_LENGTH = 2;
+    public static final int MAX_TERMS = 5;
+    public static final int MAX_PREFIX_LENGTH = 10;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private SearchKeys() {
+    }
+
+    public static List<String> of(Customer customer) {
+        Set<String> keys = new LinkedHashSet<>();
+        addTokens(keys, customer.getFirstName());
+        addTokens(keys, customer.getLastName());
+        addTokens(keys, customer.getCompanyName());
+        addTokens(keys, customer.getEmail());
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Sets {@code searchKeys} and {@code searchPrefixes} from the searchable fields of the customer.
+     */
+    public static void apply(Customer customer) {
+        List<String> keys = of(customer);
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (String key : keys) {
+            for (int length = 1; length <= Math.min(key.length(), MAX_PREFIX_LENGTH); length++) {
+                prefixes.add(key.substring(0, length));
+            }
+        }
+        customer.setSearchKeys(keys);
+        customer.setSearchPrefixes(new ArrayList<>(prefixes));
+    }
+
+    /**
+     * @return the stored prefix a term is looked up by; terms longer than {@link #MAX_PREFIX_LENGTH}
+     * must then be checked against the keys
+     */
+    public static String prefixOf(String term) {
+        return term.length() > MAX_PREFIX_LENGTH ? term.substring(0, MAX_PREFIX_LENGTH) : term;
+    }
+
+    /**
+     * Distinct normalized terms of a query, at most {@link #MAX_TERMS}.
+     */
+    public static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        addTokens(terms, query);
+        List<String> result = new ArrayList<>(terms);
+        return result.size() > MAX_TERMS ? result.subList(0, MAX_TERMS) : result;
+    }
+
+    private static void addTokens(Set<String> keys, String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                keys.add(token.length() > MAX_KEY_LENGTH ? token.substring(0, MAX_KEY_LENGTH) : token);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.nttdata.banking.customer.services;
+
+import com.nttdata.banking.customer.dto.response.CustomerImportDTO;
+import com.nttdata.banking.customer.enums.ImportFormat;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface CustomerImportService {
+
+    Flux<CustomerImportDTO> importCustomers(ImportFormat format, Flux<DataBuffer> body);
+
+    Flux<CustomerImportDTO> resumeImport(String importId, Flux<DataBuffer> body);
+
+    Mono<CustomerImportDTO> findImportById(String importId);
+}
@@ -1,10 +1,24 @@
 package com.nttdata.banking.customer.services;
 
+import com.nttdata.banking.customer.dto.request.CustomerLookupRequestDTO;
+import com.nttdata.banking.customer.dto.request.CustomerPatchRequestDTO;
 import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.dto.response.CustomerBatchResponseDTO;
+import com.nttdata.banking.customer.dto.response.CustomerChangeEventDTO;
+import com.nttdata.banking.customer.dto.response.CustomerLookupResultDTO;
+import com.nttdata.banking.customer.dto.response.CustomerPageResponseDTO;
 import com.nttdata.banking.customer.dto.response.CustomerResponseDTO;
+import com.nttdata.banking.customer.dto.response.CustomerRevisionDTO;
+import com.nttdata.banking.customer.dto.response.CustomerStatisticsDTO;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public interface CustomerService {
     Mono<CustomerResponseDTO> create(CustomerRequestDTO requestDto);
 
@@ -14,12 +28,46 @@ public interface CustomerService {
 
     Mono<CustomerResponseDTO> update(String id, CustomerRequestDTO requestDto);
 
+    Mono<CustomerResponseDTO> patch(String id, Long expectedVersion, CustomerPatchRequestDTO patchDto);
+
     Mono<Void> deleteById(String id);
 
+    Mono<CustomerResponseDTO> activate(String id);
+
+    Mono<CustomerResponseDTO> deactivate(String id);
+
     Mono<CustomerResponseDTO> findByEmail(String email);
 
     Mono<CustomerResponseDTO> findByDocumentNumber(String documentNumber);
 
+    Mono<CustomerRevisionDTO> findRevisionById(String id);
+
+    Mono<CustomerRevisionDTO> findRevisionByEmail(String email);
+
+    Mono<CustomerRevisionDTO> findRevisionByDocumentNumber(String documentNumber);
+
     Flux<CustomerResponseDTO> findByActive();
-}
 
+    Mono<CustomerPageResponseDTO<CustomerResponseDTO>> findPage(Boolean activeOnly, String cursor, int limit);
+
+    Mono<CustomerPageResponseDTO<CustomerResponseDTO>> findFiltered(Set<CustomerType> customerTypes, Boolean active, DocumentType documentType,
+                                                                    String cursor, int limit);
+
+    Mono<Map<String, Object>> findByIdProjected(String id, String fields);
+
+    Flux<Map<String, Object>> findAllProjected(Boolean activeOnly, String fields);
+
+    Mono<CustomerPageResponseDTO<Map<String, Object>>> findPageProjected(Boolean activeOnly, String cursor, int limit, String fields);
+
+    Flux<CustomerResponseDTO> streamAll(Boolean active, CustomerType customerType);
+
+    Mono<CustomerBatchResponseDTO> createBatch(List<CustomerRequestDTO> requestDtos);
+
+    Flux<CustomerChangeEventDTO> watchChanges(Set<CustomerType> customerTypes, Boolean active, String resumeToken);
+
+    Flux<CustomerLookupResultDTO> lookup(CustomerLookupRequestDTO requestDto);
+
+    Mono<CustomerPageResponseDTO<CustomerResponseDTO>> search(String query, String cursor, int limit);
+
+    Mono<CustomerStatisticsDTO> getStatistics();
+}
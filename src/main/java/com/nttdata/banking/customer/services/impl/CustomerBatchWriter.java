@@ -0,0 +1,286 @@
+package com.nttdata.banking.customer.services.impl;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.nttdata.banking.customer.cache.CustomerUniqueKeyFilter;
+import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.dto.response.CustomerBatchItemResponseDTO;
+import com.nttdata.banking.customer.dto.response.CustomerBatchResponseDTO;
+import com.nttdata.banking.customer.exception.DuplicateCustomerException;
+import com.nttdata.banking.customer.exception.InvalidDocumentException;
+import com.nttdata.banking.customer.exception.RepositoryUnavailableException;
+import com.nttdata.banking.customer.mapper.CustomerMapper;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.observability.CustomerMetrics;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import com.nttdata.banking.customer.stats.CustomerStatistics;
+import com.nttdata.banking.customer.utils.CustomerValidator;
+import com.nttdata.banking.customer.utils.DuplicateKeyErrors;
+import com.nttdata.banking.customer.utils.WriteCoalescer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates customers in bulk: a batch request, or a window of coalesced single creates. Items are
+ * validated in memory, checked for existing customers with one set-based query and written with one
+ * unordered bulk insert; every item gets its own outcome.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerBatchWriter {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+    private final CustomerValidator customerValidator;
+    private final Validator validator;
+    private final CustomerUniqueKeyFilter uniqueKeyFilter;
+    private final CustomerMetrics customerMetrics;
+    private final CustomerStatistics customerStatistics;
+
+    public Mono<CustomerBatchResponseDTO> createBatch(List<CustomerRequestDTO> requestDtos) {
+        return Mono.fromSupplier(() -> customerMetrics.record("batch", CustomerMetrics.VALIDATION, requestDtos, this::prepareBatch))
+                .flatMap(items -> customerMetrics.time("batch", CustomerMetrics.UNIQUENESS, () -> rejectExistingCustomers(items))
+                        .then(customerMetrics.time("batch", CustomerMetrics.PERSISTENCE, () -> insertBatch(items)))
+                        .thenReturn(items))
+                .map(this::toBatchResponse);
+    }
+
+    /**
+     * Writes one window of coalesced creates the way {@link #createBatch} writes a batch. Two creates
+     * of the same email, document number or RUC within a window are left to the unique indexes, which
+     * fail the second one as they would for two concurrent single creates.
+     */
+    public Mono<List<WriteCoalescer.Outcome<Customer>>> createCoalesced(List<CustomerRequestDTO> requestDtos) {
+        List<BatchItem> items = new ArrayList<>(requestDtos.size());
+        for (int index = 0; index < requestDtos.size(); index++) {
+            items.add(new BatchItem(index, requestDtos.get(index)));
+        }
+
+        return customerMetrics.time("coalesced-create", CustomerMetrics.UNIQUENESS, () -> rejectExistingCustomers(items))
+                .then(customerMetrics.time("coalesced-create", CustomerMetrics.PERSISTENCE, () -> insertBatch(items)))
+                .then(Mono.fromSupplier(() -> items.stream().map(CustomerBatchWriter::toOutcome).toList()));
+    }
+
+    /**
+     * Items rejected before the insert, by the uniqueness query, are conflicts; the insert records the
+     * exception of every item it fails.
+     */
+    private static WriteCoalescer.Outcome<Customer> toOutcome(BatchItem item) {
+        if (item.status == HttpStatus.CREATED) {
+            return WriteCoalescer.Outcome.success(item.customer);
+        }
+        return WriteCoalescer.Outcome.failure(item.failure != null ? item.failure : new DuplicateCustomerException(item.error));
+    }
+
+    /**
+     * Runs bean validation and {@link CustomerValidator} on every item and rejects the items
+     * that repeat an email, document number or RUC already used earlier in the same batch.
+     */
+    private List<BatchItem> prepareBatch(List<CustomerRequestDTO> requestDtos) {
+        List<BatchItem> items = new ArrayList<>(requestDtos.size());
+        Set<String> emails = new HashSet<>();
+        Set<String> documentNumbers = new HashSet<>();
+        Set<String> rucs = new HashSet<>();
+
+        for (int index = 0; index < requestDtos.size(); index++) {
+            BatchItem item = new BatchItem(index, requestDtos.get(index));
+            items.add(item);
+
+            if (item.request == null) {
+                item.reject(HttpStatus.BAD_REQUEST, "Customer must not be null");
+                continue;
+            }
+            Set<ConstraintViolation<CustomerRequestDTO>> violations = validator.validate(item.request);
+            if (!violations.isEmpty()) {
+                item.reject(HttpStatus.BAD_REQUEST, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            try {
+                customerValidator.validateCustomerRequest(item.request);
+            } catch (InvalidDocumentException ex) {
+                item.reject(HttpStatus.BAD_REQUEST, ex.getMessage());
+                continue;
+            }
+
+            CustomerRequestDTO dto = item.request;
+            if (emails.contains(dto.getEmail())) {
+                item.reject(HttpStatus.CONFLICT, "Duplicate email within batch: " + dto.getEmail());
+            } else if (documentNumbers.contains(dto.getDocumentNumber())) {
+                item.reject(HttpStatus.CONFLICT, "Duplicate document number within batch: " + dto.getDocumentNumber());
+            } else if (dto.getRuc() != null && rucs.contains(dto.getRuc())) {
+                item.reject(HttpStatus.CONFLICT, "Duplicate RUC within batch: " + dto.getRuc());
+            } else {
+                emails.add(dto.getEmail());
+                documentNumbers.add(dto.getDocumentNumber());
+                if (dto.getRuc() != null) {
+                    rucs.add(dto.getRuc());
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Checks uniqueness for the whole batch with one set-based query instead of three queries per item.
+     * Values the unique key filter knows to be new are left out of the query.
+     */
+    private Mono<Void> rejectExistingCustomers(List<BatchItem> items) {
+        Set<String> emails = new HashSet<>();
+        Set<String> documentNumbers = new HashSet<>();
+        Set<String> rucs = new HashSet<>();
+        for (BatchItem item : items) {
+            if (!item.isPending()) {
+                continue;
+            }
+            CustomerRequestDTO dto = item.request;
+            if (uniqueKeyFilter.mightExistEmail(dto.getEmail())) {
+                emails.add(dto.getEmail());
+            }
+            if (uniqueKeyFilter.mightExistDocumentNumber(dto.getDocumentNumber())) {
+                documentNumbers.add(dto.getDocumentNumber());
+            }
+            if (dto.getRuc() != null && uniqueKeyFilter.mightExistRuc(dto.getRuc())) {
+                rucs.add(dto.getRuc());
+            }
+        }
+
+        return customerRepository.findByUniqueFields(emails, documentNumbers, rucs)
+                .collectList()
+                .doOnNext(existingCustomers -> {
+                    Set<String> existingEmails = new HashSet<>();
+                    Set<String> existingDocuments = new HashSet<>();
+                    Set<String> existingRucs = new HashSet<>();
+                    for (Customer existing : existingCustomers) {
+                        existingEmails.add(existing.getEmail());
+                        existingDocuments.add(existing.getDocumentNumber());
+                        existingRucs.add(existing.getRuc());
+                    }
+
+                    for (BatchItem item : items) {
+                        if (!item.isPending()) {
+                            continue;
+                        }
+                        CustomerRequestDTO dto = item.request;
+                        if (existingEmails.contains(dto.getEmail())) {
+                            item.reject(HttpStatus.CONFLICT, "Customer already exists with email: " + dto.getEmail());
+                        } else if (existingDocuments.contains(dto.getDocumentNumber())) {
+                            item.reject(HttpStatus.CONFLICT, "Customer already exists with document number: " + dto.getDocumentNumber());
+                        } else if (dto.getRuc() != null && existingRucs.contains(dto.getRuc())) {
+                            item.reject(HttpStatus.CONFLICT, "Customer already exists with RUC: " + dto.getRuc());
+                        }
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Writes every pending item with a single unordered bulk insert. Ids are assigned up front so that
+     * the write errors, which are reported by position, can be matched back to their items. Duplicate
+     * keys are reported per field like a single create; any other write error leaves a valid customer
+     * unstored, which the client can retry.
+     */
+    private Mono<Void> insertBatch(List<BatchItem> items) {
+        List<BatchItem> pending = items.stream().filter(BatchItem::isPending).toList();
+        List<Customer> customers = new ArrayList<>(pending.size());
+        for (BatchItem item : pending) {
+            Customer customer = customerMapper.toEntity(item.request);
+            customer.setId(new ObjectId().toHexString());
+            customer.setVersion(0L);
+            item.customer = customer;
+            customers.add(customer);
+        }
+
+        return customerRepository.insertUnordered(customers)
+                .doOnNext(writeErrors -> {
+                    for (BulkWriteError writeError : writeErrors) {
+                        BatchItem item = pending.get(writeError.getIndex());
+                        CustomerRequestDTO dto = item.request;
+                        if (writeError.getCode() == DuplicateKeyErrors.DUPLICATE_KEY_ERROR_CODE) {
+                            item.reject(HttpStatus.CONFLICT, DuplicateKeyErrors.toDuplicateCustomer(writeError.getMessage(), dto.getEmail(),
+                                    dto.getDocumentNumber(), dto.getRuc(), "Customer already exists with ", null));
+                        } else {
+                            log.warn("Customer {} not stored, write error {}: {}", item.customer.getId(),
+                                    writeError.getCode(), writeError.getMessage());
+                            item.reject(HttpStatus.SERVICE_UNAVAILABLE,
+                                    new RepositoryUnavailableException("Customer could not be stored", Duration.ofSeconds(1)));
+                        }
+                    }
+                    for (BatchItem item : pending) {
+                        if (item.isPending()) {
+                            item.status = HttpStatus.CREATED;
+                            uniqueKeyFilter.add(item.customer);
+                            customerStatistics.added(item.customer);
+                        }
+                    }
+                })
+                .then();
+    }
+
+    private CustomerBatchResponseDTO toBatchResponse(List<BatchItem> items) {
+        List<CustomerBatchItemResponseDTO> results = new ArrayList<>(items.size());
+        int created = 0;
+        for (BatchItem item : items) {
+            boolean isCreated = item.status == HttpStatus.CREATED;
+            if (isCreated) {
+                created++;
+            }
+            results.add(CustomerBatchItemResponseDTO.builder()
+                    .index(item.index)
+                    .status(item.status.value())
+                    .customer(isCreated ? customerMapper.toResponseDto(item.customer) : null)
+                    .error(item.error)
+                    .build());
+        }
+
+        return CustomerBatchResponseDTO.builder()
+                .total(items.size())
+                .created(created)
+                .rejected(items.size() - created)
+                .results(results)
+                .build();
+    }
+
+    private static final class BatchItem {
+        private final int index;
+        private final CustomerRequestDTO request;
+        private Customer customer;
+        private HttpStatus status;
+        private String error;
+        private RuntimeException failure;
+
+        private BatchItem(int index, CustomerRequestDTO request) {
+            this.index = index;
+            this.request = request;
+        }
+
+        private boolean isPending() {
+            return status == null;
+        }
+
+        private void reject(HttpStatus status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+
+        private void reject(HttpStatus status, RuntimeException failure) {
+            reject(status, failure.getMessage());
+            this.failure = failure;
+        }
+    }
+}
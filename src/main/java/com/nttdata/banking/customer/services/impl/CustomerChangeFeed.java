@@ -0,0 +1,73 @@
+package com.nttdata.banking.customer.services.impl;
+
+import com.nttdata.banking.customer.dto.response.CustomerChangeEventDTO;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.mapper.CustomerMapper;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import com.nttdata.banking.customer.utils.ResumeTokens;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+/**
+ * Customer changes as they happen, read from the Mongo change stream.
+ * <p>
+ * Each subscriber gets its own change stream cursor and a buffer of {@code changesBufferSize}
+ * events. When a subscriber falls that far behind, the overflow strategy applies: with the default
+ * {@code ERROR} the stream ends and the client reconnects with its last event id, so no change is
+ * lost; {@code DROP_OLDEST} and {@code DROP_LATEST} keep the connection but skip changes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerChangeFeed {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+
+    @Value("${nttdata.customer.changes.buffer-size:256}")
+    private int changesBufferSize;
+
+    @Value("${nttdata.customer.changes.overflow-strategy:ERROR}")
+    private BufferOverflowStrategy changesOverflowStrategy;
+
+    /**
+     * @param resumeToken token of the last event the client received, or {@code null} to start from now
+     */
+    public Flux<CustomerChangeEventDTO> watch(Set<CustomerType> customerTypes, Boolean active, String resumeToken) {
+        return Flux.defer(() -> {
+                    BsonValue resumeAfter = resumeToken != null ? ResumeTokens.decode(resumeToken) : null;
+                    return customerRepository.watchChanges(customerTypes, active, resumeAfter);
+                })
+                .map(this::toChangeEvent)
+                .onBackpressureBuffer(changesBufferSize,
+                        change -> log.warn("Customer change feed buffer full, overflow strategy {}: {}", changesOverflowStrategy, change.getCustomerId()),
+                        changesOverflowStrategy);
+    }
+
+    private CustomerChangeEventDTO toChangeEvent(ChangeStreamEvent<Customer> event) {
+        Customer customer = event.getBody();
+        BsonValue documentKey = event.getRaw() != null && event.getRaw().getDocumentKey() != null
+                ? event.getRaw().getDocumentKey().get("_id")
+                : null;
+        String customerId = customer != null ? customer.getId()
+                : documentKey != null && documentKey.isObjectId() ? documentKey.asObjectId().getValue().toHexString()
+                : null;
+
+        return CustomerChangeEventDTO.builder()
+                .operation(event.getOperationType() != null ? event.getOperationType().getValue() : null)
+                .customerId(customerId)
+                .customer(customer != null ? customerMapper.toResponseDto(customer) : null)
+                .timestamp(event.getTimestamp())
+                .resumeToken(ResumeTokens.encode(event.getResumeToken()))
+                .build();
+    }
+}
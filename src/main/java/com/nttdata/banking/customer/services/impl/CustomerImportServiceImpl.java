@@ -0,0 +1,221 @@
+package com.nttdata.banking.customer.services.impl;
+
+import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.dto.response.CustomerBatchItemResponseDTO;
+import com.nttdata.banking.customer.dto.response.CustomerImportDTO;
+import com.nttdata.banking.customer.dto.response.CustomerImportRejectDTO;
+import com.nttdata.banking.customer.enums.ImportFormat;
+import com.nttdata.banking.customer.enums.ImportStatus;
+import com.nttdata.banking.customer.exception.CustomerDomainException;
+import com.nttdata.banking.customer.exception.CustomerImportConflictException;
+import com.nttdata.banking.customer.exception.CustomerImportNotFoundException;
+import com.nttdata.banking.customer.imports.CustomerImportParser;
+import com.nttdata.banking.customer.imports.ImportRow;
+import com.nttdata.banking.customer.models.entity.CustomerImport;
+import com.nttdata.banking.customer.repositories.CustomerImportRepository;
+import com.nttdata.banking.customer.services.CustomerImportService;
+import com.nttdata.banking.customer.services.CustomerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerImportServiceImpl implements CustomerImportService {
+
+    private final CustomerImportRepository customerImportRepository;
+    private final CustomerService customerService;
+    private final CustomerImportParser customerImportParser;
+
+    @Value("${nttdata.customer.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${nttdata.customer.import.parallelism:4}")
+    private int parallelism;
+
+    @Value("${nttdata.customer.import.max-stored-rejects:1000}")
+    private int maxStoredRejects;
+
+    /**
+     * How long a running import may go without a checkpoint before another request can resume it.
+     */
+    @Value("${nttdata.customer.import.lease:PT5M}")
+    private Duration lease;
+
+    @Override
+    public Flux<CustomerImportDTO> importCustomers(ImportFormat format, Flux<DataBuffer> body) {
+        log.info("Starting customer import, format: {}", format);
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        return customerImportRepository.save(CustomerImport.builder()
+                        .format(format)
+                        .status(ImportStatus.RUNNING)
+                        .startedAt(startedAt)
+                        .updatedAt(startedAt)
+                        .build())
+                .doOnNext(customerImport -> log.info("Customer import created: {}", customerImport.getId()))
+                .flatMapMany(customerImport -> runImport(customerImport, body))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error importing customers: {}", error.getMessage()));
+    }
+
+    /**
+     * The client uploads the same file again; the lines up to the checkpoint are skipped. Batches that
+     * were being written when the import stopped are sent again, and their rows that did reach Mongo
+     * come back as duplicates.
+     * <p>
+     * The import is claimed atomically before anything is written, so two requests never run it at
+     * once. One still running elsewhere is refused with a conflict until it has gone {@code lease}
+     * without a checkpoint; the run it is then taken from fails on its next save.
+     */
+    @Override
+    public Flux<CustomerImportDTO> resumeImport(String importId, Flux<DataBuffer> body) {
+        log.info("Resuming customer import: {}", importId);
+
+        LocalDateTime now = LocalDateTime.now();
+        return customerImportRepository.claim(importId, now.minus(lease), now)
+                .flatMapMany(customerImport -> {
+                    log.info("Customer import {} resumes after line {}", importId, customerImport.getCommittedLine());
+                    return runImport(customerImport, body);
+                })
+                .switchIfEmpty(Flux.defer(() -> customerImportRepository.findById(importId)
+                        .switchIfEmpty(Mono.error(() -> new CustomerImportNotFoundException("Import not found with ID: ", importId)))
+                        .flatMap(customerImport -> customerImport.getStatus() == ImportStatus.COMPLETED
+                                ? Mono.just(toDto(customerImport, List.of()))
+                                : Mono.error(new CustomerImportConflictException("Import is still running: ", importId)))))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error resuming customer import {}: {}", importId, error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerImportDTO> findImportById(String importId) {
+        log.info("Retrieving customer import: {}", importId);
+
+        return customerImportRepository.findById(importId)
+                .switchIfEmpty(Mono.error(() -> new CustomerImportNotFoundException("Import not found with ID: ", importId)))
+                .map(customerImport -> toDto(customerImport, null))
+                .doOnSuccess(response -> log.info("Customer import retrieved successfully: {}", importId))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer import {}: {}", importId, error.getMessage()));
+    }
+
+    /**
+     * Up to {@code parallelism} batches are written at the same time, but their results are taken in
+     * file order, so the checkpoint only moves past lines whose batch and every earlier batch are done.
+     * Emits one progress event per batch and a final one with the import status.
+     */
+    private Flux<CustomerImportDTO> runImport(CustomerImport customerImport, Flux<DataBuffer> body) {
+        return customerImportParser.parse(customerImport.getFormat(), body, customerImport.getCommittedLine())
+                .buffer(batchSize)
+                .flatMapSequential(this::importBatch, parallelism, 1)
+                .concatMap(result -> checkpoint(customerImport, result))
+                .concatWith(Mono.defer(() -> finish(customerImport, ImportStatus.COMPLETED, null)))
+                .onErrorResume(error -> error instanceof OptimisticLockingFailureException
+                        ? Mono.error(new CustomerImportConflictException("Import was resumed by another request: ", customerImport.getId()))
+                        : finish(customerImport, ImportStatus.FAILED, error.getMessage()));
+    }
+
+    private Mono<BatchResult> importBatch(List<ImportRow> rows) {
+        List<ImportRow> parsedRows = rows.stream().filter(ImportRow::isParsed).toList();
+        List<CustomerRequestDTO> requests = parsedRows.stream().map(ImportRow::request).toList();
+        Mono<List<CustomerBatchItemResponseDTO>> stored = requests.isEmpty()
+                ? Mono.just(List.of())
+                : customerService.createBatch(requests).map(response -> response.getResults());
+
+        return stored.map(results -> {
+            List<CustomerImportRejectDTO> rejects = new ArrayList<>();
+            int created = 0;
+            for (ImportRow row : rows) {
+                if (!row.isParsed()) {
+                    rejects.add(reject(row.line(), HttpStatus.BAD_REQUEST.value(), row.error()));
+                }
+            }
+            for (CustomerBatchItemResponseDTO result : results) {
+                if (result.getStatus() == HttpStatus.CREATED.value()) {
+                    created++;
+                } else {
+                    rejects.add(reject(parsedRows.get(result.getIndex()).line(), result.getStatus(), result.getError()));
+                }
+            }
+            rejects.sort(Comparator.comparingLong(CustomerImportRejectDTO::getLine));
+            return new BatchResult(rows.get(rows.size() - 1).line(), created, rejects);
+        });
+    }
+
+    /**
+     * Runs for one batch at a time, so the import document has a single writer.
+     */
+    private Mono<CustomerImportDTO> checkpoint(CustomerImport customerImport, BatchResult result) {
+        customerImport.setCommittedLine(result.lastLine());
+        customerImport.setCreated(customerImport.getCreated() + result.created());
+        customerImport.setRejected(customerImport.getRejected() + result.rejects().size());
+        for (CustomerImportRejectDTO reject : result.rejects()) {
+            if (customerImport.getRejects().size() >= maxStoredRejects) {
+                break;
+            }
+            customerImport.getRejects().add(new CustomerImport.Reject(reject.getLine(), reject.getStatus(), reject.getError()));
+        }
+        customerImport.setUpdatedAt(LocalDateTime.now());
+
+        return customerImportRepository.save(customerImport)
+                .doOnNext(saved -> customerImport.setVersion(saved.getVersion()))
+                .map(saved -> toDto(saved, result.rejects()));
+    }
+
+    private Mono<CustomerImportDTO> finish(CustomerImport customerImport, ImportStatus status, String failure) {
+        LocalDateTime now = LocalDateTime.now();
+        customerImport.setStatus(status);
+        customerImport.setFailure(failure);
+        customerImport.setUpdatedAt(now);
+        if (status == ImportStatus.COMPLETED) {
+            customerImport.setCompletedAt(now);
+        }
+
+        return customerImportRepository.save(customerImport)
+                .map(saved -> toDto(saved, List.of()))
+                .doOnSuccess(response -> log.info("Customer import {} {}: {} created, {} rejected, committed line {}",
+                        response.getId(), status, response.getCreated(), response.getRejected(), response.getCommittedLine()));
+    }
+
+    /**
+     * @param rejects rejects to report, or {@code null} for the ones stored with the import
+     */
+    private static CustomerImportDTO toDto(CustomerImport customerImport, List<CustomerImportRejectDTO> rejects) {
+        return CustomerImportDTO.builder()
+                .id(customerImport.getId())
+                .format(customerImport.getFormat())
+                .status(customerImport.getStatus())
+                .committedLine(customerImport.getCommittedLine())
+                .created(customerImport.getCreated())
+                .rejected(customerImport.getRejected())
+                .rejects(rejects != null ? rejects : customerImport.getRejects().stream()
+                        .map(reject -> reject(reject.getLine(), reject.getStatus(), reject.getError()))
+                        .toList())
+                .failure(customerImport.getFailure())
+                .startedAt(customerImport.getStartedAt())
+                .updatedAt(customerImport.getUpdatedAt())
+                .completedAt(customerImport.getCompletedAt())
+                .build();
+    }
+
+    private static CustomerImportRejectDTO reject(long line, int status, String error) {
+        return CustomerImportRejectDTO.builder()
+                .line(line)
+                .status(status)
+                .error(error)
+                .build();
+    }
+
+    private record BatchResult(long lastLine, int created, List<CustomerImportRejectDTO> rejects) {
+    }
+}
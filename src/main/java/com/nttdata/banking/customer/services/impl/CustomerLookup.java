@@ -0,0 +1,94 @@
+package com.nttdata.banking.customer.services.impl;
+
+import com.nttdata.banking.customer.dto.request.CustomerLookupRequestDTO;
+import com.nttdata.banking.customer.dto.response.CustomerLookupResultDTO;
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import com.nttdata.banking.customer.mapper.CustomerMapper;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resolves the keys with one {@code $in} query per chunk of {@code lookupChunkSize} distinct keys,
+ * running up to {@code lookupConcurrency} chunks at a time. Results keep the request order and
+ * each chunk is emitted as soon as it and the chunks before it are done, followed by a
+ * {@code found=false} result for each of its keys that matched no customer.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerLookup {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+
+    @Value("${nttdata.customer.lookup.chunk-size:500}")
+    private int lookupChunkSize;
+
+    @Value("${nttdata.customer.lookup.concurrency:4}")
+    private int lookupConcurrency;
+
+    public Flux<CustomerLookupResultDTO> lookup(CustomerLookupRequestDTO requestDto) {
+        return Flux.defer(() -> {
+            if (sizeOf(requestDto.getIds()) + sizeOf(requestDto.getEmails()) + sizeOf(requestDto.getDocumentNumbers()) == 0) {
+                return Flux.error(new InvalidQueryParameterException("At least one id, email or document number is required"));
+            }
+            return Flux.concat(
+                    lookupChunks("id", requestDto.getIds(), customerRepository::findByIdIn, Customer::getId),
+                    lookupChunks("email", requestDto.getEmails(), customerRepository::findByEmailIn, Customer::getEmail),
+                    lookupChunks("documentNumber", requestDto.getDocumentNumbers(),
+                            customerRepository::findByDocumentNumberIn, Customer::getDocumentNumber));
+        });
+    }
+
+    static int sizeOf(Collection<?> values) {
+        return values != null ? values.size() : 0;
+    }
+
+    private Flux<CustomerLookupResultDTO> lookupChunks(String keyType, List<String> keys,
+                                                       Function<Collection<String>, Flux<Customer>> query,
+                                                       Function<Customer, String> keyOf) {
+        if (sizeOf(keys) == 0) {
+            return Flux.empty();
+        }
+        Set<String> distinctKeys = new LinkedHashSet<>(keys);
+        distinctKeys.remove(null);
+
+        return Flux.fromIterable(distinctKeys)
+                .buffer(Math.max(1, lookupChunkSize))
+                .flatMapSequential(chunk -> query.apply(chunk)
+                        .collectList()
+                        .flatMapIterable(customers -> toLookupResults(keyType, chunk, customers, keyOf)), Math.max(1, lookupConcurrency));
+    }
+
+    private List<CustomerLookupResultDTO> toLookupResults(String keyType, List<String> chunk, List<Customer> customers,
+                                                          Function<Customer, String> keyOf) {
+        Map<String, Customer> customersByKey = new HashMap<>(customers.size() * 2);
+        for (Customer customer : customers) {
+            customersByKey.put(keyOf.apply(customer), customer);
+        }
+
+        List<CustomerLookupResultDTO> results = new ArrayList<>(chunk.size());
+        for (String key : chunk) {
+            Customer customer = customersByKey.get(key);
+            results.add(CustomerLookupResultDTO.builder()
+                    .keyType(keyType)
+                    .key(key)
+                    .found(customer != null)
+                    .customer(customer != null ? customerMapper.toResponseDto(customer) : null)
+                    .build());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,112 @@
+package com.nttdata.banking.customer.services.impl;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.nttdata.banking.customer.dto.response.CustomerPageResponseDTO;
+import com.nttdata.banking.customer.dto.response.CustomerResponseDTO;
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import com.nttdata.banking.customer.exception.RepositoryUnavailableException;
+import com.nttdata.banking.customer.mapper.CustomerMapper;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import com.nttdata.banking.customer.search.SearchKeys;
+import com.nttdata.banking.customer.utils.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Type-ahead search on the normalized {@code searchKeys}. Customers having every term as a whole
+ * word rank first, then those matching every term only as a prefix; each rank is ordered by id,
+ * so the cursor holds the rank and the last id and a page can continue from one rank into the
+ * next. Every query is bounded by {@code searchMaxTime} on the server; a query stopped by it
+ * fails the request with a 503 rather than returning a page that may skip matches.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerSearch {
+
+    private static final int EXACT_MATCH_RANK = 0;
+    private static final int PREFIX_MATCH_RANK = 1;
+
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+
+    @Value("${nttdata.customer.search.max-page-size:50}")
+    private int searchMaxPageSize;
+
+    @Value("${nttdata.customer.search.max-time:PT0.2S}")
+    private Duration searchMaxTime;
+
+    public Mono<CustomerPageResponseDTO<CustomerResponseDTO>> search(String query, String cursor, int limit) {
+        return Mono.defer(() -> {
+            List<String> terms = SearchKeys.terms(query);
+            if (terms.stream().mapToInt(String::length).sum() < SearchKeys.MIN_QUERY_LENGTH) {
+                return Mono.error(new InvalidQueryParameterException(
+                        "Search query must have at least " + SearchKeys.MIN_QUERY_LENGTH + " letters or digits"));
+            }
+            if (limit < 1) {
+                return Mono.error(new InvalidQueryParameterException("Page limit must be greater than zero"));
+            }
+            int pageSize = Math.min(limit, searchMaxPageSize);
+            CursorCodec.RankedCursor position = cursor != null
+                    ? CursorCodec.decodeRanked(cursor)
+                    : new CursorCodec.RankedCursor(EXACT_MATCH_RANK, null);
+            if (position.rank() > PREFIX_MATCH_RANK) {
+                return Mono.error(new InvalidQueryParameterException("Invalid pagination cursor: ", cursor));
+            }
+
+            return searchRank(terms, position.rank(), position.afterId(), pageSize + 1)
+                    .flatMap(rows -> rows.size() > pageSize || position.rank() == PREFIX_MATCH_RANK
+                            ? Mono.just(rows)
+                            : searchRank(terms, PREFIX_MATCH_RANK, null, pageSize + 1 - rows.size())
+                            .map(prefixRows -> {
+                                List<RankedCustomer> allRows = new ArrayList<>(rows);
+                                allRows.addAll(prefixRows);
+                                return allRows;
+                            }))
+                    .map(rows -> toSearchPage(rows, pageSize));
+        });
+    }
+
+    private Mono<List<RankedCustomer>> searchRank(List<String> terms, int rank, String afterId, int limit) {
+        return customerRepository.search(terms, rank == EXACT_MATCH_RANK, afterId, limit, searchMaxTime)
+                .map(customer -> new RankedCustomer(rank, customer))
+                .collectList()
+                .onErrorMap(CustomerSearch::isServerTimeout, error -> new RepositoryUnavailableException(
+                        "Search did not complete within " + searchMaxTime, Duration.ofSeconds(1), error));
+    }
+
+    /**
+     * A query stopped by its {@code maxTime} on the server, whether or not the driver exception was translated.
+     */
+    private static boolean isServerTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoExecutionTimeoutException || cause instanceof QueryTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CustomerPageResponseDTO<CustomerResponseDTO> toSearchPage(List<RankedCustomer> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<RankedCustomer> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        RankedCustomer last = hasMore ? pageRows.get(pageSize - 1) : null;
+
+        return CustomerPageResponseDTO.<CustomerResponseDTO>builder()
+                .content(pageRows.stream().map(row -> customerMapper.toResponseDto(row.customer())).toList())
+                .size(pageRows.size())
+                .hasMore(hasMore)
+                .nextCursor(last != null ? CursorCodec.encodeRanked(last.rank(), last.customer().getId()) : null)
+                .build();
+    }
+
+    private record RankedCustomer(int rank, Customer customer) {
+    }
+}
@@ -1,27 +1,127 @@
 package com.nttdata.banking.customer.services.impl;
 
+import com.nttdata.banking.customer.cache.CustomerCache;
+import com.nttdata.banking.customer.cache.CustomerUniqueKeyFilter;
+import com.nttdata.banking.customer.dto.request.CustomerLookupRequestDTO;
+import com.nttdata.banking.customer.dto.request.CustomerPatchRequestDTO;
 import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.dto.response.CustomerBatchResponseDTO;
+import com.nttdata.banking.customer.dto.response.CustomerChangeEventDTO;
+import com.nttdata.banking.customer.dto.response.CustomerLookupResultDTO;
+import com.nttdata.banking.customer.dto.response.CustomerPageResponseDTO;
 import com.nttdata.banking.customer.dto.response.CustomerResponseDTO;
+import com.nttdata.banking.customer.dto.response.CustomerRevisionDTO;
+import com.nttdata.banking.customer.dto.response.CustomerStatisticsDTO;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.exception.CustomerDomainException;
 import com.nttdata.banking.customer.exception.CustomerNotFoundException;
+import com.nttdata.banking.customer.exception.CustomerPreconditionFailedException;
+import com.nttdata.banking.customer.exception.CustomerVersionConflictException;
 import com.nttdata.banking.customer.exception.DuplicateCustomerException;
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
 import com.nttdata.banking.customer.mapper.CustomerMapper;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.observability.CustomerMetrics;
+import com.nttdata.banking.customer.repositories.CoalescingCustomerReader;
 import com.nttdata.banking.customer.repositories.CustomerRepository;
+import com.nttdata.banking.customer.search.SearchKeys;
+import com.nttdata.banking.customer.stats.CustomerStatistics;
 import com.nttdata.banking.customer.services.CustomerService;
+import com.nttdata.banking.customer.utils.CursorCodec;
+import com.nttdata.banking.customer.utils.CustomerFieldSet;
 import com.nttdata.banking.customer.utils.CustomerValidator;
+import com.nttdata.banking.customer.utils.DuplicateKeyErrors;
+import com.nttdata.banking.customer.utils.EntityTags;
+import com.nttdata.banking.customer.utils.WriteCoalescer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CustomerServiceImpl implements CustomerService {
 
+    private static final List<String> REVISION_FIELDS = List.of("version", "updatedAt", "createdAt");
+    private static final String NON_BLANK = "\\S";
+    private static final String RUC_FORMAT = "^\\d{11}$";
+    private static final int SEARCH_KEYS_PATCH_ATTEMPTS = 3;
+
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
     private final CustomerValidator customerValidator;
+    private final CustomerCache customerCache;
+    private final CustomerUniqueKeyFilter uniqueKeyFilter;
+    private final CustomerMetrics customerMetrics;
+    private final CustomerStatistics customerStatistics;
+    private final CoalescingCustomerReader coalescingReader;
+    private final CustomerSearch customerSearch;
+    private final CustomerLookup customerLookup;
+    private final CustomerBatchWriter customerBatchWriter;
+    private final CustomerChangeFeed customerChangeFeed;
+
+    @Value("${nttdata.customer.pagination.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${nttdata.customer.export.batch-size:500}")
+    private int exportBatchSize;
+
+    @Value("${nttdata.customer.create-coalescing.enabled:false}")
+    private boolean createCoalescingEnabled;
+
+    @Value("${nttdata.customer.create-coalescing.max-batch-size:100}")
+    private int createCoalescingMaxBatchSize;
+
+    @Value("${nttdata.customer.create-coalescing.window:PT0.005S}")
+    private Duration createCoalescingWindow;
+
+    @Value("${nttdata.customer.create-coalescing.concurrency:4}")
+    private int createCoalescingConcurrency;
+
+    private WriteCoalescer<CustomerRequestDTO, Customer> createCoalescer;
+
+    /**
+     * With coalescing enabled, creates that arrive within {@code createCoalescingWindow} of each other
+     * share one uniqueness query and one bulk insert. A longer window gives bigger batches and fewer
+     * round trips, at the cost of that much added latency per create.
+     */
+    @PostConstruct
+    void startCreateCoalescer() {
+        if (createCoalescingEnabled) {
+            createCoalescer = new WriteCoalescer<>(createCoalescingMaxBatchSize, createCoalescingWindow,
+                    createCoalescingConcurrency, customerBatchWriter::createCoalesced, customerMetrics.batchSize("create"));
+            log.info("Create coalescing enabled, window: {}, max batch size: {}", createCoalescingWindow, createCoalescingMaxBatchSize);
+        }
+    }
+
+    @PreDestroy
+    void stopCreateCoalescer() {
+        if (createCoalescer != null) {
+            createCoalescer.dispose();
+        }
+    }
 
     @Override
     public Mono<CustomerResponseDTO> create(CustomerRequestDTO requestDto) {
@@ -30,14 +130,24 @@ public class CustomerServiceImpl implements CustomerService {
         return Mono.just(requestDto)
                 .doOnNext(dto -> {
                     log.debug("Validating customer request");
-                    customerValidator.validateCustomerRequest(dto);
+                    customerMetrics.run("create", CustomerMetrics.VALIDATION, dto, customerValidator::validateCustomerRequest);
                 })
-                .flatMap(this::validateUniqueFields)
-                .map(customerMapper::toEntity)
-                .flatMap(customerRepository::save)
-                .map(customerMapper::toResponseDto)
+                .flatMap(dto -> createCoalescer != null && !createCoalescer.isDisposed() ? createCoalescer.submit(dto) : createOne(dto))
+                .map(customer -> customerMetrics.record("create", CustomerMetrics.RESPONSE, customer, customerMapper::toResponseDto))
                 .doOnSuccess(response -> log.info("Customer created successfully with ID: {}", response.getId()))
-                .doOnError(error -> log.error("Error creating customer: {}", error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error creating customer: {}", error.getMessage()));
+    }
+
+    private Mono<Customer> createOne(CustomerRequestDTO requestDto) {
+        return customerMetrics.time("create", CustomerMetrics.UNIQUENESS, () -> validateUniqueFields(requestDto))
+                .map(dto -> customerMetrics.record("create", CustomerMetrics.MAPPING, dto, customerMapper::toEntity))
+                .flatMap(customer -> customerMetrics.time("create", CustomerMetrics.PERSISTENCE, () -> customerRepository.save(customer)))
+                .onErrorMap(DuplicateKeyException.class, ex -> DuplicateKeyErrors.toDuplicateCustomer(ex.getMessage(), requestDto.getEmail(),
+                        requestDto.getDocumentNumber(), requestDto.getRuc(), "Customer already exists with ", ex))
+                .doOnNext(createdCustomer -> {
+                    uniqueKeyFilter.add(createdCustomer);
+                    customerStatistics.added(createdCustomer);
+                });
     }
 
     @Override
@@ -47,18 +157,18 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.findAll()
                 .map(customerMapper::toResponseDto)
                 .doOnComplete(() -> log.info("Retrieved all customers successfully"))
-                .doOnError(error -> log.error("Error retrieving customers: {}", error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customers: {}", error.getMessage()));
     }
 
     @Override
     public Mono<CustomerResponseDTO> findById(String id) {
         log.info("Retrieving customer by ID: {}", id);
 
-        return customerRepository.findById(id)
-                .switchIfEmpty(Mono.error(new CustomerNotFoundException("Customer not found with ID: " + id)))
+        return customerCache.getById(id, customerRepository::findById)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with ID: ", id)))
                 .map(customerMapper::toResponseDto)
                 .doOnSuccess(response -> log.info("Customer retrieved successfully: {}", id))
-                .doOnError(error -> log.error("Error retrieving customer {}: {}", id, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer {}: {}", id, error.getMessage()));
     }
 
     @Override
@@ -68,50 +178,167 @@ public class CustomerServiceImpl implements CustomerService {
         return Mono.just(requestDto)
                 .doOnNext(dto -> {
                     log.debug("Validating customer update request");
-                    customerValidator.validateCustomerRequest(dto);
+                    customerMetrics.run("update", CustomerMetrics.VALIDATION, dto, customerValidator::validateCustomerRequest);
                 })
-                .flatMap(dto -> validateUniqueFieldsForUpdate(id, dto))
-                .flatMap(dto -> customerRepository.findById(id)
-                        .switchIfEmpty(Mono.error(new CustomerNotFoundException("Customer not found with ID: " + id)))
-                        .doOnNext(existingCustomer -> customerMapper.updateEntityFromDto(dto, existingCustomer))
+                .flatMap(dto -> customerMetrics.time("update", CustomerMetrics.UNIQUENESS, () -> validateUniqueFieldsForUpdate(id, dto)))
+                .flatMap(dto -> customerMetrics.time("update", CustomerMetrics.PERSISTENCE, () -> customerRepository.findById(id)
+                        .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with ID: ", id)))
+                        .flatMap(existingCustomer -> {
+                            long readVersion = existingCustomer.getVersion() != null ? existingCustomer.getVersion() : 0L;
+                            CustomerStatistics.Dimensions previous = CustomerStatistics.Dimensions.of(existingCustomer);
+                            customerMapper.updateEntityFromDto(dto, existingCustomer);
+                            return customerRepository.replaceVersioned(existingCustomer, readVersion)
+                                    .switchIfEmpty(Mono.defer(() -> versionMismatch(id, readVersion)))
+                                    .doOnNext(replaced -> customerStatistics.changed(previous, existingCustomer))
+                                    .thenReturn(existingCustomer);
+                        }))
                 )
-                .flatMap(customerRepository::save)
-                .map(customerMapper::toResponseDto)
+                .onErrorMap(DuplicateKeyException.class, ex -> DuplicateKeyErrors.toDuplicateCustomer(ex.getMessage(), requestDto.getEmail(),
+                        requestDto.getDocumentNumber(), requestDto.getRuc(), "Another customer already exists with ", ex))
+                .doOnNext(updatedCustomer -> {
+                    customerCache.invalidate(id);
+                    uniqueKeyFilter.add(updatedCustomer);
+                })
+                .map(customer -> customerMetrics.record("update", CustomerMetrics.RESPONSE, customer, customerMapper::toResponseDto))
                 .doOnSuccess(response -> log.info("Customer updated successfully: {}", id))
-                .doOnError(error -> log.error("Error updating customer {}: {}", id, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error updating customer {}: {}", id, error.getMessage()));
+    }
+
+    /**
+     * Writes only the provided fields with one versioned {@code findAndModify} that returns the stored
+     * result. Rules of the whole document that the patch relies on the stored fields for are conditions
+     * of the same update; when nothing matched, the current document tells which check failed.
+     * <p>
+     * A patch that changes the customer type or document type asks for the previous document instead,
+     * as the statistics need the values it replaced, and applies the patch to it in memory. A patch of
+     * a searchable field goes through {@link #patchWithSearchKeys}.
+     */
+    @Override
+    public Mono<CustomerResponseDTO> patch(String id, Long expectedVersion, CustomerPatchRequestDTO patchDto) {
+        log.info("Patching customer with ID: {}, expected version: {}", id, expectedVersion);
+
+        return Mono.just(patchDto)
+                .doOnNext(dto -> {
+                    log.debug("Validating customer patch request");
+                    customerMetrics.run("patch", CustomerMetrics.VALIDATION, dto, customerValidator::validatePatchRequest);
+                })
+                .flatMap(dto -> customerMetrics.time("patch", CustomerMetrics.UNIQUENESS, () -> validateUniqueFieldsForPatch(id, dto)))
+                .flatMap(dto -> customerMetrics.time("patch", CustomerMetrics.PERSISTENCE, () -> {
+                    LocalDateTime updatedAt = LocalDateTime.now();
+                    if (changesSearchKeys(dto)) {
+                        return patchWithSearchKeys(id, expectedVersion, dto, updatedAt, SEARCH_KEYS_PATCH_ATTEMPTS);
+                    }
+                    boolean returnNew = dto.getCustomerType() == null && dto.getDocumentType() == null;
+                    return customerRepository.findAndModifyVersioned(id, expectedVersion, patchRequirements(dto), toUpdate(dto, updatedAt), returnNew)
+                            .switchIfEmpty(Mono.defer(() -> patchRejected(id, expectedVersion, dto)))
+                            .map(customer -> {
+                                if (returnNew) {
+                                    return customer;
+                                }
+                                CustomerStatistics.Dimensions previous = CustomerStatistics.Dimensions.of(customer);
+                                Customer patchedCustomer = applyPatch(customer, dto, updatedAt);
+                                customerStatistics.changed(previous, patchedCustomer);
+                                return patchedCustomer;
+                            });
+                }))
+                .onErrorMap(DuplicateKeyException.class, ex -> DuplicateKeyErrors.toDuplicateCustomer(ex.getMessage(), patchDto.getEmail(),
+                        patchDto.getDocumentNumber(), patchDto.getRuc(), "Another customer already exists with ", ex))
+                .doOnNext(patchedCustomer -> {
+                    customerCache.invalidate(id);
+                    uniqueKeyFilter.add(patchedCustomer);
+                })
+                .map(customerMapper::toResponseDto)
+                .doOnSuccess(response -> log.info("Customer patched successfully: {}, version: {}", id, response.getVersion()))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error patching customer {}: {}", id, error.getMessage()));
     }
 
     @Override
     public Mono<Void> deleteById(String id) {
         log.info("Deleting customer with ID: {}", id);
 
-        return customerRepository.findById(id)
-                .switchIfEmpty(Mono.error(new CustomerNotFoundException("Customer not found with ID: " + id)))
-                .flatMap(customer -> customerRepository.deleteById(id))
+        return customerRepository.findAndRemoveById(id)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with ID: ", id)))
+                .doOnNext(deletedCustomer -> {
+                    customerCache.invalidate(id);
+                    customerStatistics.removed(deletedCustomer);
+                })
+                .then()
                 .doOnSuccess(unused -> log.info("Customer deleted successfully: {}", id))
-                .doOnError(error -> log.error("Error deleting customer {}: {}", id, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error deleting customer {}: {}", id, error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerResponseDTO> activate(String id) {
+        log.info("Activating customer with ID: {}", id);
+
+        return changeActive(id, true)
+                .doOnSuccess(response -> log.info("Customer activated successfully: {}", id))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error activating customer {}: {}", id, error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerResponseDTO> deactivate(String id) {
+        log.info("Deactivating customer with ID: {}", id);
+
+        return changeActive(id, false)
+                .doOnSuccess(response -> log.info("Customer deactivated successfully: {}", id))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error deactivating customer {}: {}", id, error.getMessage()));
     }
 
     @Override
     public Mono<CustomerResponseDTO> findByEmail(String email) {
         log.info("Retrieving customer by email: {}", email);
 
-        return customerRepository.findByEmail(email)
-                .switchIfEmpty(Mono.error(new CustomerNotFoundException("Customer not found with email: " + email)))
+        return customerCache.getByEmail(email, coalescingReader::findByEmail)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with email: ", email)))
                 .map(customerMapper::toResponseDto)
                 .doOnSuccess(response -> log.info("Customer retrieved by email successfully: {}", email))
-                .doOnError(error -> log.error("Error retrieving customer by email {}: {}", email, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer by email {}: {}", email, error.getMessage()));
     }
 
     @Override
     public Mono<CustomerResponseDTO> findByDocumentNumber(String documentNumber) {
         log.info("Retrieving customer by document number: {}", documentNumber);
 
-        return customerRepository.findByDocumentNumber(documentNumber)
-                .switchIfEmpty(Mono.error(new CustomerNotFoundException("Customer not found with document number: " + documentNumber)))
+        return customerCache.getByDocumentNumber(documentNumber, coalescingReader::findByDocumentNumber)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with document number: ", documentNumber)))
                 .map(customerMapper::toResponseDto)
                 .doOnSuccess(response -> log.info("Customer retrieved by document number successfully: {}", documentNumber))
-                .doOnError(error -> log.error("Error retrieving customer by document number {}: {}", documentNumber, error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer by document number {}: {}", documentNumber, error.getMessage()));
+    }
+
+    /**
+     * Revisions are served from the cache when the customer is there and otherwise read with a
+     * projection of the version and dates, so validating a conditional request never loads the
+     * whole document.
+     */
+    @Override
+    public Mono<CustomerRevisionDTO> findRevisionById(String id) {
+        log.info("Retrieving customer revision by ID: {}", id);
+
+        return findRevision(customerCache.getIfPresent(id), () -> coalescingReader.findProjectedById(id, REVISION_FIELDS))
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with ID: ", id)))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer revision {}: {}", id, error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerRevisionDTO> findRevisionByEmail(String email) {
+        log.info("Retrieving customer revision by email: {}", email);
+
+        return findRevision(customerCache.getIfPresentByEmail(email),
+                () -> coalescingReader.findProjectedByUniqueKey("email", email, REVISION_FIELDS))
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with email: ", email)))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer revision by email {}: {}", email, error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerRevisionDTO> findRevisionByDocumentNumber(String documentNumber) {
+        log.info("Retrieving customer revision by document number: {}", documentNumber);
+
+        return findRevision(customerCache.getIfPresentByDocumentNumber(documentNumber),
+                () -> coalescingReader.findProjectedByUniqueKey("documentNumber", documentNumber, REVISION_FIELDS))
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with document number: ", documentNumber)))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer revision by document number {}: {}", documentNumber, error.getMessage()));
     }
 
     @Override
@@ -121,56 +348,410 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.findByActiveTrue()
                 .map(customerMapper::toResponseDto)
                 .doOnComplete(() -> log.info("Retrieved active customers successfully"))
-                .doOnError(error -> log.error("Error retrieving active customers: {}", error.getMessage()));
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving active customers: {}", error.getMessage()));
     }
 
+    @Override
+    public Mono<CustomerPageResponseDTO<CustomerResponseDTO>> findPage(Boolean activeOnly, String cursor, int limit) {
+        log.info("Retrieving customers page, activeOnly: {}, limit: {}", activeOnly, limit);
 
-    private Mono<CustomerRequestDTO> validateUniqueFields(CustomerRequestDTO requestDto) {
-        return Mono.zip(
-                customerRepository.existsByEmail(requestDto.getEmail()),
-                customerRepository.existsByDocumentNumber(requestDto.getDocumentNumber()),
-                requestDto.getRuc() != null ? customerRepository.existsByRuc(requestDto.getRuc()) : Mono.just(false)
-        ).flatMap(tuple -> {
-            boolean emailExists = tuple.getT1();
-            boolean documentExists = tuple.getT2();
-            boolean rucExists = tuple.getT3();
-
-            if (emailExists) {
-                return Mono.error(new DuplicateCustomerException("Customer already exists with email: " + requestDto.getEmail()));
-            }
-            if (documentExists) {
-                return Mono.error(new DuplicateCustomerException("Customer already exists with document number: " + requestDto.getDocumentNumber()));
-            }
-            if (rucExists) {
-                return Mono.error(new DuplicateCustomerException("Customer already exists with RUC: " + requestDto.getRuc()));
+        return readPage(cursor, limit, (afterId, fetchSize) -> findPageSource(Boolean.TRUE.equals(activeOnly), afterId, Limit.of(fetchSize)),
+                Customer::getId, customerMapper::toResponseDto)
+                .doOnSuccess(page -> log.info("Retrieved customers page successfully, size: {}", page.getSize()))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customers page: {}", error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerPageResponseDTO<CustomerResponseDTO>> findFiltered(Set<CustomerType> customerTypes, Boolean active, DocumentType documentType,
+                                                                           String cursor, int limit) {
+        log.info("Retrieving filtered customers, customerTypes: {}, active: {}, documentType: {}, limit: {}",
+                customerTypes, active, documentType, limit);
+
+        Set<CustomerType> types = customerTypes != null ? customerTypes : Set.of();
+        if (types.isEmpty() && active == null && documentType == null) {
+            return Mono.error(new InvalidQueryParameterException(
+                    "At least one of customerType, active or documentType is required to use an index"));
+        }
+
+        return readPage(cursor, limit, (afterId, fetchSize) -> customerRepository.findFiltered(types, active, documentType, afterId, fetchSize),
+                Customer::getId, customerMapper::toResponseDto)
+                .doOnSuccess(page -> log.info("Retrieved filtered customers successfully, size: {}", page.getSize()))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving filtered customers: {}", error.getMessage()));
+    }
+
+    @Override
+    public Mono<Map<String, Object>> findByIdProjected(String id, String fields) {
+        log.info("Retrieving customer by ID: {}, fields: {}", id, fields);
+
+        return Mono.fromSupplier(() -> CustomerFieldSet.parse(fields))
+                .flatMap(fieldSet -> coalescingReader.findProjectedById(id, fieldSet.mongoFields())
+                        .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with ID: ", id)))
+                        .map(fieldSet::toResponse))
+                .doOnSuccess(response -> log.info("Customer fields retrieved successfully: {}", id))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer fields {}: {}", id, error.getMessage()));
+    }
+
+    @Override
+    public Flux<Map<String, Object>> findAllProjected(Boolean activeOnly, String fields) {
+        log.info("Retrieving customers, activeOnly: {}, fields: {}", activeOnly, fields);
+
+        return Mono.fromSupplier(() -> CustomerFieldSet.parse(fields))
+                .flatMapMany(fieldSet -> customerRepository.findProjected(Boolean.TRUE.equals(activeOnly), null, null, fieldSet.mongoFields())
+                        .map(fieldSet::toResponse))
+                .doOnComplete(() -> log.info("Retrieved customer fields successfully"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer fields: {}", error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerPageResponseDTO<Map<String, Object>>> findPageProjected(Boolean activeOnly, String cursor, int limit, String fields) {
+        log.info("Retrieving customers page, activeOnly: {}, limit: {}, fields: {}", activeOnly, limit, fields);
+
+        return Mono.fromSupplier(() -> CustomerFieldSet.parse(fields))
+                .flatMap(fieldSet -> readPage(cursor, limit,
+                        (afterId, fetchSize) -> customerRepository.findProjected(Boolean.TRUE.equals(activeOnly), afterId, fetchSize, fieldSet.mongoFields()),
+                        document -> document.getObjectId("_id").toHexString(),
+                        fieldSet::toResponse))
+                .doOnSuccess(page -> log.info("Retrieved customers page successfully, size: {}", page.getSize()))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customers page: {}", error.getMessage()));
+    }
+
+    /**
+     * Streams the export without collecting it: the Mongo cursor is read in {@code exportBatchSize}
+     * chunks and the next chunk is only requested once the HTTP consumer has drained the previous one.
+     */
+    @Override
+    public Flux<CustomerResponseDTO> streamAll(Boolean active, CustomerType customerType) {
+        log.info("Streaming customers export, active: {}, customerType: {}", active, customerType);
+
+        return customerRepository.streamAll(active, customerType, exportBatchSize)
+                .limitRate(exportBatchSize)
+                .map(customerMapper::toResponseDto)
+                .doOnComplete(() -> log.info("Customers export streamed successfully"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error streaming customers export: {}", error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerBatchResponseDTO> createBatch(List<CustomerRequestDTO> requestDtos) {
+        log.info("Creating customer batch with {} items", requestDtos.size());
+
+        return customerBatchWriter.createBatch(requestDtos)
+                .doOnSuccess(response -> log.info("Customer batch processed: {} created, {} rejected",
+                        response.getCreated(), response.getRejected()))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error creating customer batch: {}", error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerStatisticsDTO> getStatistics() {
+        log.info("Retrieving customer statistics");
+
+        return Mono.fromSupplier(customerStatistics::snapshot)
+                .doOnSuccess(statistics -> log.info("Customer statistics retrieved successfully, total: {}", statistics.getTotal()))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error retrieving customer statistics: {}", error.getMessage()));
+    }
+
+    @Override
+    public Mono<CustomerPageResponseDTO<CustomerResponseDTO>> search(String query, String cursor, int limit) {
+        log.info("Searching customers, query: {}, limit: {}", query, limit);
+
+        return customerSearch.search(query, cursor, limit)
+                .doOnSuccess(page -> log.info("Customer search completed successfully, size: {}", page.getSize()))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error searching customers: {}", error.getMessage()));
+    }
+
+    @Override
+    public Flux<CustomerChangeEventDTO> watchChanges(Set<CustomerType> customerTypes, Boolean active, String resumeToken) {
+        log.info("Watching customer changes, customerTypes: {}, active: {}, resuming: {}", customerTypes, active, resumeToken != null);
+
+        return customerChangeFeed.watch(customerTypes != null ? customerTypes : Set.of(), active, resumeToken)
+                .doOnCancel(() -> log.info("Customer change feed subscriber disconnected"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error watching customer changes: {}", error.getMessage()));
+    }
+
+    @Override
+    public Flux<CustomerLookupResultDTO> lookup(CustomerLookupRequestDTO requestDto) {
+        log.info("Looking up customers, ids: {}, emails: {}, document numbers: {}", CustomerLookup.sizeOf(requestDto.getIds()),
+                CustomerLookup.sizeOf(requestDto.getEmails()), CustomerLookup.sizeOf(requestDto.getDocumentNumbers()));
+
+        return customerLookup.lookup(requestDto)
+                .doOnComplete(() -> log.info("Customer lookup completed successfully"))
+                .doOnError(CustomerDomainException::isUnexpected, error -> log.error("Error looking up customers: {}", error.getMessage()));
+    }
+
+    /**
+     * Fetches one row more than the page size to know whether a next page exists.
+     *
+     * @param source query for the rows after the given id (or from the start when {@code null}), limited to the given size
+     * @param idOf   id of a row, used to build the next cursor
+     * @param mapper conversion of a row into the page content
+     */
+    private <T, R> Mono<CustomerPageResponseDTO<R>> readPage(String cursor, int limit, BiFunction<String, Integer, Flux<T>> source,
+                                                             Function<T, String> idOf, Function<T, R> mapper) {
+        return Mono.defer(() -> {
+            if (limit < 1) {
+                return Mono.error(new InvalidQueryParameterException("Page limit must be greater than zero"));
             }
+            int pageSize = Math.min(limit, maxPageSize);
+            String afterId = cursor != null ? CursorCodec.decode(cursor) : null;
 
-            return Mono.just(requestDto);
+            return source.apply(afterId, pageSize + 1)
+                    .collectList()
+                    .map(rows -> toPage(rows, pageSize, idOf, mapper));
         });
     }
 
+    /**
+     * Keyset query: every page is an index range scan on {@code _id} (or {@code active, _id})
+     * starting right after the previous page, so deep pages cost the same as the first one.
+     */
+    private Flux<Customer> findPageSource(boolean activeOnly, String afterId, Limit limit) {
+        if (activeOnly) {
+            return afterId == null
+                    ? customerRepository.findByActiveTrueOrderByIdAsc(limit)
+                    : customerRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(afterId, limit);
+        }
+        return afterId == null
+                ? customerRepository.findAllByOrderByIdAsc(limit)
+                : customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, limit);
+    }
 
-    private Mono<CustomerRequestDTO> validateUniqueFieldsForUpdate(String id, CustomerRequestDTO requestDto) {
-        return Mono.zip(
-                customerRepository.existsByEmailAndIdNot(requestDto.getEmail(), id),
-                customerRepository.existsByDocumentNumberAndIdNot(requestDto.getDocumentNumber(), id),
-                requestDto.getRuc() != null ? customerRepository.existsByRucAndIdNot(requestDto.getRuc(), id) : Mono.just(false)
-        ).flatMap(tuple -> {
-            boolean emailExists = tuple.getT1();
-            boolean documentExists = tuple.getT2();
-            boolean rucExists = tuple.getT3();
-
-            if (emailExists) {
-                return Mono.error(new DuplicateCustomerException("Another customer already exists with email: " + requestDto.getEmail()));
-            }
-            if (documentExists) {
-                return Mono.error(new DuplicateCustomerException("Another customer already exists with document number: " + requestDto.getDocumentNumber()));
-            }
-            if (rucExists) {
-                return Mono.error(new DuplicateCustomerException("Another customer already exists with RUC: " + requestDto.getRuc()));
-            }
+    private <T, R> CustomerPageResponseDTO<R> toPage(List<T> rows, int pageSize, Function<T, String> idOf, Function<T, R> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? CursorCodec.encode(idOf.apply(pageRows.get(pageSize - 1))) : null;
 
+        return CustomerPageResponseDTO.<R>builder()
+                .content(pageRows.stream().map(mapper).toList())
+                .size(pageRows.size())
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private Mono<CustomerRequestDTO> validateUniqueFields(CustomerRequestDTO requestDto) {
+        if (!uniqueKeyFilter.mightExist(requestDto.getEmail(), requestDto.getDocumentNumber(), requestDto.getRuc())) {
             return Mono.just(requestDto);
-        });
+        }
+
+        return customerRepository.findUniqueFieldConflicts(requestDto.getEmail(), requestDto.getDocumentNumber(), requestDto.getRuc(), null)
+                .collectList()
+                .doOnNext(conflicts -> {
+                    if (conflicts.isEmpty()) {
+                        uniqueKeyFilter.recordFalsePositive();
+                    }
+                })
+                .flatMap(conflicts -> rejectConflicts(conflicts, requestDto.getEmail(), requestDto.getDocumentNumber(),
+                        requestDto.getRuc(), "Customer already exists with "))
+                .thenReturn(requestDto);
+    }
+
+
+    private Mono<CustomerRequestDTO> validateUniqueFieldsForUpdate(String id, CustomerRequestDTO requestDto) {
+        return customerRepository.findUniqueFieldConflicts(requestDto.getEmail(), requestDto.getDocumentNumber(), requestDto.getRuc(), id)
+                .collectList()
+                .flatMap(conflicts -> rejectConflicts(conflicts, requestDto.getEmail(), requestDto.getDocumentNumber(),
+                        requestDto.getRuc(), "Another customer already exists with "))
+                .thenReturn(requestDto);
+    }
+
+    /**
+     * One atomic {@code $set} when the flag changes. A customer already in the requested state is returned
+     * as is, which keeps the endpoints idempotent for workflows that retry.
+     */
+    private Mono<CustomerResponseDTO> changeActive(String id, boolean active) {
+        return customerRepository.updateActive(id, active, LocalDateTime.now())
+                .doOnNext(updatedCustomer -> {
+                    customerCache.invalidate(id);
+                    CustomerStatistics.Dimensions current = CustomerStatistics.Dimensions.of(updatedCustomer);
+                    customerStatistics.changed(new CustomerStatistics.Dimensions(current.customerTypes(), current.documentType(), !active), updatedCustomer);
+                })
+                .switchIfEmpty(Mono.defer(() -> customerRepository.findById(id)))
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with ID: ", id)))
+                .map(customerMapper::toResponseDto);
+    }
+
+    private Mono<CustomerPatchRequestDTO> validateUniqueFieldsForPatch(String id, CustomerPatchRequestDTO patchDto) {
+        if (patchDto.getEmail() == null && patchDto.getDocumentNumber() == null && patchDto.getRuc() == null) {
+            return Mono.just(patchDto);
+        }
+
+        return customerRepository.findUniqueFieldConflicts(patchDto.getEmail(), patchDto.getDocumentNumber(), patchDto.getRuc(), id)
+                .collectList()
+                .flatMap(conflicts -> rejectConflicts(conflicts, patchDto.getEmail(), patchDto.getDocumentNumber(),
+                        patchDto.getRuc(), "Another customer already exists with "))
+                .thenReturn(patchDto);
+    }
+
+    private Mono<CustomerRevisionDTO> findRevision(Customer cached, Supplier<Mono<Document>> projection) {
+        if (cached != null) {
+            return Mono.just(CustomerRevisionDTO.builder()
+                    .id(cached.getId())
+                    .version(cached.getVersion() != null ? cached.getVersion() : 0L)
+                    .lastModified(EntityTags.lastModified(cached.getUpdatedAt(), cached.getCreatedAt()))
+                    .build());
+        }
+        return Mono.defer(projection)
+                .map(document -> {
+                    Number version = document.get("version", Number.class);
+                    return CustomerRevisionDTO.builder()
+                            .id(document.getObjectId("_id").toHexString())
+                            .version(version != null ? version.longValue() : 0L)
+                            .lastModified(EntityTags.lastModified(document.get("updatedAt", Date.class), document.get("createdAt", Date.class)))
+                            .build();
+                });
+    }
+
+    /**
+     * Reports the conflicting field with the same precedence as before: email, then document number, then RUC.
+     * Values passed as {@code null} are not checked.
+     */
+    private Mono<Void> rejectConflicts(List<Customer> conflicts, String email, String documentNumber, String ruc, String messagePrefix) {
+        boolean emailExists = false;
+        boolean documentExists = false;
+        boolean rucExists = false;
+        for (Customer conflict : conflicts) {
+            emailExists |= email != null && email.equals(conflict.getEmail());
+            documentExists |= documentNumber != null && documentNumber.equals(conflict.getDocumentNumber());
+            rucExists |= ruc != null && ruc.equals(conflict.getRuc());
+        }
+
+        if (emailExists) {
+            return Mono.error(new DuplicateCustomerException(messagePrefix + "email: ", email));
+        }
+        if (documentExists) {
+            return Mono.error(new DuplicateCustomerException(messagePrefix + "document number: ", documentNumber));
+        }
+        if (rucExists) {
+            return Mono.error(new DuplicateCustomerException(messagePrefix + "RUC: ", ruc));
+        }
+
+        return Mono.empty();
+    }
+
+    private Update toUpdate(CustomerPatchRequestDTO patchDto, LocalDateTime updatedAt) {
+        Update update = new Update();
+        setIfPresent(update, "customerType", patchDto.getCustomerType());
+        setIfPresent(update, "firstName", patchDto.getFirstName());
+        setIfPresent(update, "lastName", patchDto.getLastName());
+        setIfPresent(update, "documentType", patchDto.getDocumentType());
+        setIfPresent(update, "documentNumber", patchDto.getDocumentNumber());
+        setIfPresent(update, "companyName", patchDto.getCompanyName());
+        setIfPresent(update, "ruc", patchDto.getRuc());
+        setIfPresent(update, "phoneNumber", patchDto.getPhoneNumber());
+        setIfPresent(update, "email", patchDto.getEmail());
+        setIfPresent(update, "address", patchDto.getAddress());
+        return update.set("updatedAt", updatedAt);
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private static boolean changesSearchKeys(CustomerPatchRequestDTO patchDto) {
+        return patchDto.getFirstName() != null || patchDto.getLastName() != null
+                || patchDto.getCompanyName() != null || patchDto.getEmail() != null;
+    }
+
+    /**
+     * Partial updates skip entity callbacks, and the search keys of a customer depend on searchable
+     * fields the patch may leave to the stored document. The document is therefore read first, the
+     * patch is applied to it in memory, and the keys of the merged result are set by the same update,
+     * conditioned on the version that was read. The merged document is validated before the write, as
+     * it cannot change in between.
+     * <p>
+     * Without an {@code If-Match} version, a write that lost a race with another one is retried on the
+     * newer document, at most {@code attempts} times in all.
+     */
+    private Mono<Customer> patchWithSearchKeys(String id, Long expectedVersion, CustomerPatchRequestDTO patchDto,
+                                               LocalDateTime updatedAt, int attempts) {
+        return customerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with ID: ", id)))
+                .flatMap(current -> {
+                    long readVersion = current.getVersion() != null ? current.getVersion() : 0L;
+                    if (expectedVersion != null && expectedVersion != readVersion) {
+                        return Mono.error(new CustomerPreconditionFailedException("Customer " + id + " is at version " + readVersion
+                                + ", If-Match expected version " + expectedVersion));
+                    }
+                    CustomerStatistics.Dimensions previous = CustomerStatistics.Dimensions.of(current);
+                    Customer merged = applyPatch(current, patchDto, updatedAt);
+                    customerValidator.validateCustomer(merged);
+                    SearchKeys.apply(merged);
+                    Update update = toUpdate(patchDto, updatedAt)
+                            .set("searchKeys", merged.getSearchKeys())
+                            .set("searchPrefixes", merged.getSearchPrefixes());
+
+                    return customerRepository.findAndModifyVersioned(id, readVersion, null, update, true)
+                            .doOnNext(patchedCustomer -> customerStatistics.changed(previous, patchedCustomer))
+                            .switchIfEmpty(Mono.defer(() -> expectedVersion == null && attempts > 1
+                                    ? patchWithSearchKeys(id, null, patchDto, updatedAt, attempts - 1)
+                                    : patchRejected(id, expectedVersion, patchDto)));
+                });
+    }
+
+    private Customer applyPatch(Customer previousCustomer, CustomerPatchRequestDTO patchDto, LocalDateTime updatedAt) {
+        customerMapper.patchEntityFromDto(patchDto, previousCustomer);
+        previousCustomer.setUpdatedAt(updatedAt);
+        previousCustomer.setVersion((previousCustomer.getVersion() != null ? previousCustomer.getVersion() : 0L) + 1);
+        return previousCustomer;
+    }
+
+    /**
+     * Conditions a new customer type puts on the fields the patch leaves to the stored document, so the
+     * merged document is validated by the update itself.
+     *
+     * @return {@code null} when the patch keeps the customer type
+     */
+    private static Criteria patchRequirements(CustomerPatchRequestDTO patchDto) {
+        Set<CustomerType> customerTypes = patchDto.getCustomerType();
+        if (customerTypes == null) {
+            return null;
+        }
+        List<Criteria> requirements = new ArrayList<>(4);
+        if (customerTypes.contains(CustomerType.PERSONAL)) {
+            requireStored(requirements, "firstName", patchDto.getFirstName(), NON_BLANK);
+            requireStored(requirements, "lastName", patchDto.getLastName(), NON_BLANK);
+        }
+        if (customerTypes.contains(CustomerType.BUSINESS)) {
+            requireStored(requirements, "companyName", patchDto.getCompanyName(), NON_BLANK);
+            requireStored(requirements, "ruc", patchDto.getRuc(), RUC_FORMAT);
+        }
+        return requirements.isEmpty() ? null : new Criteria().andOperator(requirements);
+    }
+
+    private static void requireStored(List<Criteria> requirements, String field, String patchedValue, String pattern) {
+        if (patchedValue == null) {
+            requirements.add(Criteria.where(field).regex(pattern));
+        }
+    }
+
+    /**
+     * A patch matched nothing. The current document tells whether the customer is gone, the
+     * {@code If-Match} version is outdated, or the merged document breaks a rule; if none holds any
+     * more, a concurrent write changed it in between.
+     */
+    private Mono<Customer> patchRejected(String id, Long expectedVersion, CustomerPatchRequestDTO patchDto) {
+        return customerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException("Customer not found with ID: ", id)))
+                .flatMap(current -> {
+                    long currentVersion = current.getVersion() != null ? current.getVersion() : 0L;
+                    if (expectedVersion != null && currentVersion != expectedVersion) {
+                        return Mono.error(new CustomerPreconditionFailedException("Customer " + id + " is at version " + currentVersion
+                                + ", If-Match expected version " + expectedVersion));
+                    }
+                    customerMapper.patchEntityFromDto(patchDto, current);
+                    customerValidator.validateCustomer(current);
+                    return Mono.error(new CustomerVersionConflictException("Customer " + id + " was modified concurrently"));
+                });
+    }
+
+    /**
+     * A versioned write matched nothing: either the customer is gone or another writer got there first.
+     */
+    private <T> Mono<T> versionMismatch(String id, long expectedVersion) {
+        return customerRepository.existsById(id)
+                .flatMap(exists -> Mono.error(exists
+                        ? new CustomerVersionConflictException("Customer " + id + " was modified concurrently, expected version " + expectedVersion)
+                        : new CustomerNotFoundException("Customer not found with ID: ", id)));
     }
 }
@@ -0,0 +1,209 @@
+package com.nttdata.banking.customer.stats;
+
+import com.nttdata.banking.customer.dto.response.CustomerStatisticsDTO;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Customer counts by type, document type and active flag, served from memory.
+ * <p>
+ * The counters are moved by the write paths of this instance and periodically reconciled with an
+ * aggregation. Reconciliation adds the difference between the aggregated count and the counter value
+ * seen when the aggregation started, so writes made while it runs are not lost; at worst they are
+ * counted twice until the next run. Writes handled by other instances only show up after the next
+ * reconciliation.
+ */
+@Component
+@Slf4j
+public class CustomerStatistics {
+
+    private static final CustomerType[] CUSTOMER_TYPES = CustomerType.values();
+    private static final DocumentType[] DOCUMENT_TYPES = DocumentType.values();
+
+    private final CustomerRepository customerRepository;
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong active = new AtomicLong();
+    private final AtomicLongArray byCustomerType = new AtomicLongArray(CUSTOMER_TYPES.length);
+    private final AtomicLongArray byDocumentType = new AtomicLongArray(DOCUMENT_TYPES.length);
+    private final AtomicLong lastDrift = new AtomicLong();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private volatile Instant reconciledAt;
+
+    public CustomerStatistics(CustomerRepository customerRepository, MeterRegistry meterRegistry) {
+        this.customerRepository = customerRepository;
+
+        Gauge.builder("customer.stats.drift", lastDrift, AtomicLong::get)
+                .description("Customers the last reconciliation added to or removed from the total")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    /**
+     * Runs the aggregation in the background; skipped while the previous one is still running.
+     */
+    @Scheduled(fixedDelayString = "${nttdata.customer.stats.reconcile-interval:PT10M}",
+            initialDelayString = "${nttdata.customer.stats.reconcile-interval:PT10M}")
+    public void reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        Counts start = new Counts();
+
+        customerRepository.aggregateStatistics()
+                .doFinally(signal -> reconciling.set(false))
+                .subscribe(
+                        result -> {
+                            long drift = apply(start, result);
+                            lastDrift.set(drift);
+                            reconciledAt = Instant.now();
+                            log.info("Customer statistics reconciled, total: {}, drift: {}", total.get(), drift);
+                        },
+                        error -> log.error("Error reconciling customer statistics: {}", error.getMessage()));
+    }
+
+    public void added(Customer customer) {
+        move(Dimensions.of(customer), 1);
+    }
+
+    public void removed(Customer customer) {
+        move(Dimensions.of(customer), -1);
+    }
+
+    /**
+     * @param previous dimensions of the customer before the write, taken with {@link Dimensions#of}
+     */
+    public void changed(Dimensions previous, Customer customer) {
+        Dimensions current = Dimensions.of(customer);
+        if (!previous.equals(current)) {
+            move(previous, -1);
+            move(current, 1);
+        }
+    }
+
+    /**
+     * Counters are read one by one, so a snapshot taken during a write may be off by that write.
+     */
+    public CustomerStatisticsDTO snapshot() {
+        Map<CustomerType, Long> customerTypes = new EnumMap<>(CustomerType.class);
+        for (CustomerType type : CUSTOMER_TYPES) {
+            customerTypes.put(type, byCustomerType.get(type.ordinal()));
+        }
+        Map<DocumentType, Long> documentTypes = new EnumMap<>(DocumentType.class);
+        for (DocumentType type : DOCUMENT_TYPES) {
+            documentTypes.put(type, byDocumentType.get(type.ordinal()));
+        }
+        long totalCount = total.get();
+        long activeCount = active.get();
+
+        return CustomerStatisticsDTO.builder()
+                .total(totalCount)
+                .active(activeCount)
+                .inactive(totalCount - activeCount)
+                .byCustomerType(customerTypes)
+                .byDocumentType(documentTypes)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    private void move(Dimensions dimensions, int delta) {
+        total.addAndGet(delta);
+        if (dimensions.active()) {
+            active.addAndGet(delta);
+        }
+        for (CustomerType type : dimensions.customerTypes()) {
+            byCustomerType.addAndGet(type.ordinal(), delta);
+        }
+        if (dimensions.documentType() != null) {
+            byDocumentType.addAndGet(dimensions.documentType().ordinal(), delta);
+        }
+    }
+
+    /**
+     * @return how much the total moved
+     */
+    private long apply(Counts start, Document result) {
+        Map<Object, Long> activeGroups = groups(result, "byActive");
+        long aggregatedTotal = activeGroups.values().stream().mapToLong(Long::longValue).sum();
+        long drift = aggregatedTotal - start.total;
+
+        total.addAndGet(drift);
+        active.addAndGet(activeGroups.getOrDefault(Boolean.TRUE, 0L) - start.active);
+        Map<Object, Long> customerTypes = groups(result, "byCustomerType");
+        for (CustomerType type : CUSTOMER_TYPES) {
+            byCustomerType.addAndGet(type.ordinal(), customerTypes.getOrDefault(type.name(), 0L) - start.byCustomerType[type.ordinal()]);
+        }
+        Map<Object, Long> documentTypes = groups(result, "byDocumentType");
+        for (DocumentType type : DOCUMENT_TYPES) {
+            byDocumentType.addAndGet(type.ordinal(), documentTypes.getOrDefault(type.name(), 0L) - start.byDocumentType[type.ordinal()]);
+        }
+        return drift;
+    }
+
+    private static Map<Object, Long> groups(Document result, String facet) {
+        Map<Object, Long> counts = new HashMap<>();
+        for (Document group : result.getList(facet, Document.class, List.of())) {
+            Object key = group.get("_id");
+            counts.merge(key != null ? key : "", ((Number) group.get("count")).longValue(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * What a customer is counted under. Taken before an in-place update so the old values can be
+     * subtracted afterwards.
+     */
+    public record Dimensions(Set<CustomerType> customerTypes, DocumentType documentType, boolean active) {
+
+        public static Dimensions of(Customer customer) {
+            Set<CustomerType> customerTypes = EnumSet.noneOf(CustomerType.class);
+            if (customer.getCustomerType() != null) {
+                customerTypes.addAll(customer.getCustomerType());
+            }
+            return new Dimensions(customerTypes, customer.getDocumentType(), Boolean.TRUE.equals(customer.getActive()));
+        }
+    }
+
+    /**
+     * Counter values when a reconciliation starts.
+     */
+    private final class Counts {
+        private final long total = CustomerStatistics.this.total.get();
+        private final long active = CustomerStatistics.this.active.get();
+        private final long[] byCustomerType = new long[CUSTOMER_TYPES.length];
+        private final long[] byDocumentType = new long[DOCUMENT_TYPES.length];
+
+        private Counts() {
+            for (int i = 0; i < byCustomerType.length; i++) {
+                byCustomerType[i] = CustomerStatistics.this.byCustomerType.get(i);
+            }
+            for (int i = 0; i < byDocumentType.length; i++) {
+                byDocumentType[i] = CustomerStatistics.this.byDocumentType.get(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset pagination.
+ * A cursor carries the {@code _id} of the last customer of a page, and for ranked results also
+ * the rank that customer was listed under.
+ */
+public final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static String encodeRanked(int rank, String id) {
+        return encode(rank + ":" + id);
+    }
+
+    /**
+     * @param cursor the cursor received from the client
+     * @return the rank and customer id the next page starts after
+     * @throws InvalidQueryParameterException if the cursor is malformed
+     */
+    public static RankedCursor decodeRanked(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (value.length() > 2 && value.charAt(1) == ':' && Character.isDigit(value.charAt(0))
+                    && ObjectId.isValid(value.substring(2))) {
+                return new RankedCursor(value.charAt(0) - '0', value.substring(2));
+            }
+        } catch (IllegalArgumentException ignored) {
+            // fall through to the error below
+        }
+        throw new InvalidQueryParameterException("Invalid pagination cursor: ", cursor);
+    }
+
+    /**
+     * @param cursor the cursor received from the client
+     * @return the customer id the next page starts after
+     * @throws InvalidQueryParameterException if the cursor is malformed
+     */
+    public static String decode(String cursor) {
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (ObjectId.isValid(id)) {
+                return id;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // fall through to the error below
+        }
+        throw new InvalidQueryParameterException("Invalid pagination cursor: ", cursor);
+    }
+
+    public record RankedCursor(int rank, String afterId) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldset requested through {@code ?fields=}. The selection is pushed down to Mongo as a
+ * projection and the raw BSON document is turned straight into the response map, so the
+ * {@code Customer} entity is never materialized.
+ */
+public final class CustomerFieldSet {
+
+    private static final String ID = "id";
+    private static final String MONGO_ID = "_id";
+
+    /**
+     * Fields of {@code CustomerResponseDTO}, which map one to one to the stored document.
+     */
+    private static final Set<String> RESPONSE_FIELDS = Set.of(ID, "customerType", "firstName", "lastName",
+            "documentType", "documentNumber", "companyName", "ruc", "phoneNumber", "email", "address",
+            "createdAt", "updatedAt", "active", "version");
+
+    private final List<String> fields;
+    private final List<String> mongoFields;
+
+    private CustomerFieldSet(List<String> fields) {
+        this.fields = Collections.unmodifiableList(fields);
+        List<String> projected = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            projected.add(ID.equals(field) ? MONGO_ID : field);
+        }
+        this.mongoFields = Collections.unmodifiableList(projected);
+    }
+
+    /**
+     * @param fields comma separated list of response field names
+     * @throws InvalidQueryParameterException if the list is empty or names an unknown field
+     */
+    public static CustomerFieldSet parse(String fields) {
+        List<String> selected = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!RESPONSE_FIELDS.contains(name)) {
+                throw new InvalidQueryParameterException("Unknown customer field: ", name);
+            }
+            if (!selected.contains(name)) {
+                selected.add(name);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidQueryParameterException("At least one field must be selected");
+        }
+        return new CustomerFieldSet(selected);
+    }
+
+    /**
+     * Field names as stored in Mongo, for the query projection.
+     */
+    public List<String> mongoFields() {
+        return mongoFields;
+    }
+
+    /**
+     * Builds the response body from the projected document, in the requested field order.
+     */
+    public Map<String, Object> toResponse(Document document) {
+        Map<String, Object> response = new LinkedHashMap<>(fields.size() * 2);
+        for (int i = 0; i < fields.size(); i++) {
+            Object value = document.get(mongoFields.get(i));
+            if (value instanceof ObjectId objectId) {
+                value = objectId.toHexString();
+            } else if (value instanceof Date date) {
+                // Same zone Spring Data uses when it writes LocalDateTime values
+                value = LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+            }
+            response.put(fields.get(i), value);
+        }
+        return response;
+    }
+}
@@ -5,44 +5,99 @@ import com.nttdata.banking.customer.exception.InvalidDocumentException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Document and RUC format checks. Surrounding whitespace is skipped by index instead of trimming,
+ * and every violation is a precomputed constant, so a valid document is checked without allocating.
+ */
 @Component
 @Slf4j
 public class DocumentValidator {
 
+    static final Violation DOCUMENT_TYPE_REQUIRED = new Violation("documentType", "Document type cannot be null");
+    static final Violation DOCUMENT_NUMBER_REQUIRED = new Violation("documentNumber", "Document number cannot be empty");
+    static final Violation INVALID_RUC = new Violation("ruc", "RUC must be exactly 11 digits");
+
+    private static final Map<DocumentType, Violation> INVALID_FORMAT = new EnumMap<>(DocumentType.class);
+
+    static {
+        for (DocumentType documentType : DocumentType.values()) {
+            INVALID_FORMAT.put(documentType, new Violation("documentNumber", documentType.getFormatMessage()));
+        }
+    }
+
     public void validateDocumentFormat(DocumentType documentType, String documentNumber) {
-        log.debug("Validating document: type={}, number={}", documentType, documentNumber);
+        throwIfPresent(checkDocumentFormat(documentType, documentNumber));
+    }
 
+    public void validateRucFormat(String ruc) {
+        throwIfPresent(checkRucFormat(ruc));
+    }
+
+    /**
+     * @return the violation, or {@code null} when the document number is valid for its type
+     */
+    public Violation checkDocumentFormat(DocumentType documentType, String documentNumber) {
         if (documentType == null) {
-            throw new InvalidDocumentException("Document type cannot be null");
+            return DOCUMENT_TYPE_REQUIRED;
         }
-
-        if (documentNumber == null || documentNumber.trim().isEmpty()) {
-            throw new InvalidDocumentException("Document number cannot be empty");
+        if (documentNumber == null) {
+            return DOCUMENT_NUMBER_REQUIRED;
         }
+        int start = firstNonBlank(documentNumber);
+        int end = lastNonBlank(documentNumber);
+        if (start >= end) {
+            return DOCUMENT_NUMBER_REQUIRED;
+        }
+        return documentType.isValidFormat(documentNumber, start, end) ? null : INVALID_FORMAT.get(documentType);
+    }
 
-        String cleanDocumentNumber = documentNumber.trim();
-
-        if (!documentType.isValidFormat(cleanDocumentNumber)) {
-            throw new InvalidDocumentException(
-                    String.format("Invalid format for document type %s. Expected pattern: %s",
-                            documentType.getName(), documentType.getPattern())
-            );
+    /**
+     * A missing or blank RUC is valid here; whether it is required depends on the customer type.
+     *
+     * @return the violation, or {@code null} when the RUC is absent or has 11 digits
+     */
+    public Violation checkRucFormat(String ruc) {
+        if (ruc == null) {
+            return null;
         }
+        int start = firstNonBlank(ruc);
+        int end = lastNonBlank(ruc);
+        if (start >= end) {
+            return null;
+        }
+        return DocumentType.RUC.isValidFormat(ruc, start, end) ? null : INVALID_RUC;
+    }
 
-        log.debug("Document validation successful for type={}, number={}", documentType, documentNumber);
+    /**
+     * Same notion of blank as {@link String#trim()}.
+     */
+    static boolean isBlank(String value) {
+        return value == null || firstNonBlank(value) == value.length();
     }
 
-    public void validateRucFormat(String ruc) {
-        if (ruc != null && !ruc.trim().isEmpty()) {
-            log.debug("Validating RUC: {}", ruc);
+    private static int firstNonBlank(String value) {
+        int index = 0;
+        while (index < value.length() && value.charAt(index) <= ' ') {
+            index++;
+        }
+        return index;
+    }
 
-            String cleanRuc = ruc.trim();
-            if (!cleanRuc.matches("^\\d{11}$")) {
-                throw new InvalidDocumentException("RUC must be exactly 11 digits");
-            }
+    private static int lastNonBlank(String value) {
+        int index = value.length();
+        while (index > 0 && value.charAt(index - 1) <= ' ') {
+            index--;
+        }
+        return index;
+    }
 
-            log.debug("RUC validation successful: {}", ruc);
+    private static void throwIfPresent(Violation violation) {
+        if (violation != null) {
+            log.debug("Document validation failed: {}", violation.message());
+            throw new InvalidDocumentException(violation.message());
         }
     }
 }
-
@@ -0,0 +1,63 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.exception.DuplicateCustomerException;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the duplicate key errors of the unique indexes into {@link DuplicateCustomerException}s.
+ * <p>
+ * They are the last line of defense when the pre-checks missed a concurrent write, or a key written
+ * by another instance that this instance's unique key filter cannot know about. The index named in
+ * the Mongo error tells which field clashed, so the response carries the same message as a conflict
+ * found by the pre-check, with the value from the request rather than the raw error text.
+ */
+public final class DuplicateKeyErrors {
+
+    public static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+
+    /**
+     * E11000 messages name the index and, since Mongo 4.2, the key: {@code index: email dup key: { email: "..." }}.
+     */
+    private static final Pattern DUPLICATE_KEY_INDEX = Pattern.compile("index: (\\S+) dup key: \\{ ?(\\w*)");
+
+    private DuplicateKeyErrors() {
+    }
+
+    /**
+     * @param mongoMessage message of the duplicate key error
+     */
+    public static DuplicateCustomerException toDuplicateCustomer(String mongoMessage, String email, String documentNumber,
+                                                                 String ruc, String messagePrefix, Throwable cause) {
+        String field = duplicateField(mongoMessage);
+        if ("email".equals(field) && email != null) {
+            return new DuplicateCustomerException(messagePrefix + "email: " + email, cause);
+        }
+        if ("documentNumber".equals(field) && documentNumber != null) {
+            return new DuplicateCustomerException(messagePrefix + "document number: " + documentNumber, cause);
+        }
+        if ("ruc".equals(field) && ruc != null) {
+            return new DuplicateCustomerException(messagePrefix + "RUC: " + ruc, cause);
+        }
+        return new DuplicateCustomerException(messagePrefix + "the same email, document number or RUC", cause);
+    }
+
+    /**
+     * @return {@code email}, {@code documentNumber} or {@code ruc}, or {@code null} if the message names none
+     */
+    private static String duplicateField(String mongoMessage) {
+        Matcher matcher = mongoMessage != null ? DUPLICATE_KEY_INDEX.matcher(mongoMessage) : null;
+        if (matcher == null || !matcher.find()) {
+            return null;
+        }
+        String key = !matcher.group(2).isEmpty() ? matcher.group(2) : matcher.group(1);
+        for (String field : List.of("email", "documentNumber", "ruc")) {
+            if (key.equals(field) || key.startsWith(field + "_")) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.exception.CustomerPreconditionFailedException;
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Converts between customer versions and HTTP entity tags. Documents written before versioning
+ * was introduced have no version and are treated as version 0.
+ * <p>
+ * Tags are {@code "<id>-<version>"}: customers looked up by email or document number can be deleted
+ * and replaced by another customer with the same key, starting again at version 0, and a tag held
+ * for the first one must not match the second.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String of(String id, Long version) {
+        return "\"" + id + "-" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * {@code Last-Modified} of a customer: the last update, or the creation for customers never updated.
+     * Dates are stored from {@code LocalDateTime} in the system zone, so they are read back the same way.
+     */
+    public static Instant lastModified(LocalDateTime updatedAt, LocalDateTime createdAt) {
+        LocalDateTime lastModified = updatedAt != null ? updatedAt : createdAt;
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant() : null;
+    }
+
+    /**
+     * Same as {@link #lastModified(LocalDateTime, LocalDateTime)} for dates read from a raw document.
+     */
+    public static Instant lastModified(Date updatedAt, Date createdAt) {
+        Date lastModified = updatedAt != null ? updatedAt : createdAt;
+        return lastModified != null ? lastModified.toInstant() : null;
+    }
+
+    /**
+     * {@code If-Match} uses strong comparison, so a weak tag never matches, nor does a tag without a
+     * customer id.
+     *
+     * @param ifMatch the {@code If-Match} header value, may be {@code null}
+     * @param id      the customer the request is for
+     * @return the expected version, or {@code null} when any version is accepted
+     * @throws InvalidQueryParameterException      if the header is not a quoted entity tag, or its version is not a number
+     * @throws CustomerPreconditionFailedException if the tag is weak or belongs to another customer
+     */
+    public static Long parseVersion(String ifMatch, String id) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new CustomerPreconditionFailedException("If-Match requires a strong entity tag: ", ifMatch);
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new InvalidQueryParameterException("Invalid If-Match header: ", ifMatch);
+        }
+        tag = tag.substring(1, tag.length() - 1);
+        int separator = tag.lastIndexOf('-');
+        if (separator < 0 || !tag.substring(0, separator).equals(id)) {
+            throw new CustomerPreconditionFailedException("If-Match does not match customer: ", id);
+        }
+        try {
+            return Long.parseLong(tag.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            throw new InvalidQueryParameterException("Invalid If-Match header: " + ifMatch, ex);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+/**
+ * Converts change stream resume tokens to and from the opaque string clients send back in
+ * {@code Last-Event-ID}. The token is the hex {@code _data} field Mongo puts in it.
+ */
+public final class ResumeTokens {
+
+    private static final String DATA = "_data";
+    private static final int MAX_LENGTH = 1024;
+
+    private ResumeTokens() {
+    }
+
+    public static String encode(BsonValue resumeToken) {
+        if (resumeToken == null || !resumeToken.isDocument()) {
+            return null;
+        }
+        BsonValue data = resumeToken.asDocument().get(DATA);
+        return data != null && data.isString() ? data.asString().getValue() : null;
+    }
+
+    /**
+     * @throws InvalidQueryParameterException if the token is not one produced by {@link #encode}
+     */
+    public static BsonDocument decode(String token) {
+        if (token.isEmpty() || token.length() > MAX_LENGTH) {
+            throw new InvalidQueryParameterException("Invalid resume token: ", token);
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.digit(token.charAt(i), 16) < 0) {
+                throw new InvalidQueryParameterException("Invalid resume token: ", token);
+            }
+        }
+        return new BsonDocument(DATA, new BsonString(token));
+    }
+}
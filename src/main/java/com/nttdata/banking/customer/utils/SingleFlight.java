@@ -0,0 +1,122 @@
+package com.nttdata.banking.customer.utils;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight query among concurrent subscribers asking for the same key.
+ * <p>
+ * The first subscriber starts the query and later ones join it until it completes, at which point
+ * the key is released and the next subscriber starts a fresh query; results are never reused after
+ * the fact. Subscribers are reference counted: when the last one cancels, the query is cancelled.
+ * At most {@code maxKeys} queries are tracked; beyond that, callers run their own query.
+ * <p>
+ * Joined subscribers receive the same instance, so values must be treated as read-only.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Flight> flights = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final Runnable onJoin;
+
+    /**
+     * @param onJoin called each time a subscriber joins a query instead of starting one
+     */
+    public SingleFlight(int maxKeys, Runnable onJoin) {
+        this.maxKeys = maxKeys;
+        this.onJoin = onJoin;
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> query) {
+        return Mono.defer(() -> {
+            while (true) {
+                Flight flight = flights.get(key);
+                if (flight != null) {
+                    if (flight.join()) {
+                        onJoin.run();
+                        return flight.result();
+                    }
+                    // Every subscriber left; it is being removed
+                    flights.remove(key, flight);
+                    continue;
+                }
+                if (flights.size() >= maxKeys) {
+                    return query.get();
+                }
+                flight = new Flight(key);
+                if (flights.putIfAbsent(key, flight) == null) {
+                    flight.start(query);
+                    return flight.result();
+                }
+            }
+        });
+    }
+
+    public int inFlight() {
+        return flights.size();
+    }
+
+    private final class Flight {
+        private final K key;
+        private final Sinks.One<V> sink = Sinks.one();
+        private final AtomicInteger subscribers = new AtomicInteger(1);
+        private final Disposable.Swap query = Disposables.swap();
+
+        private Flight(K key) {
+            this.key = key;
+        }
+
+        /**
+         * @return {@code false} if the last subscriber already left and the query was cancelled
+         */
+        private boolean join() {
+            int count;
+            do {
+                count = subscribers.get();
+                if (count == 0) {
+                    return false;
+                }
+            } while (!subscribers.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        /**
+         * The key is released before the result is emitted, so a subscriber arriving from that point
+         * starts a new query instead of joining one that has finished.
+         */
+        private void start(Supplier<Mono<V>> source) {
+            query.update(Mono.defer(source).subscribe(
+                    value -> {
+                        flights.remove(key, this);
+                        sink.tryEmitValue(value);
+                    },
+                    error -> {
+                        flights.remove(key, this);
+                        sink.tryEmitError(error);
+                    },
+                    () -> {
+                        flights.remove(key, this);
+                        sink.tryEmitEmpty();
+                    }));
+        }
+
+        private Mono<V> result() {
+            return sink.asMono()
+                    .doOnCancel(this::leave);
+        }
+
+        private void leave() {
+            if (subscribers.decrementAndGet() == 0) {
+                flights.remove(key, this);
+                query.dispose();
+            }
+        }
+    }
+}
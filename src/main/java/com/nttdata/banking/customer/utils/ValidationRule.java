@@ -0,0 +1,15 @@
+package com.nttdata.banking.customer.utils;
+
+/**
+ * A single business rule over a request.
+ *
+ * @param <T> the request type
+ */
+@FunctionalInterface
+public interface ValidationRule<T> {
+
+    /**
+     * @return the violation, or {@code null} when the request satisfies the rule
+     */
+    Violation check(T request);
+}
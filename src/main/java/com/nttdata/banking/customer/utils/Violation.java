@@ -0,0 +1,11 @@
+package com.nttdata.banking.customer.utils;
+
+/**
+ * A failed business rule. Rules return shared constant instances so that validation allocates
+ * nothing unless a request is actually invalid.
+ *
+ * @param field   the request field the rule is about
+ * @param message the error reported to the client
+ */
+public record Violation(String field, String message) {
+}
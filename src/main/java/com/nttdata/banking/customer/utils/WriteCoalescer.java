@@ -0,0 +1,129 @@
+package com.nttdata.banking.customer.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Turns concurrent single writes into batch writes.
+ * <p>
+ * Items submitted from any thread go through one serialized sink and are cut into batches of at
+ * most {@code maxBatchSize} items or whatever arrived within {@code window}, whichever comes first.
+ * Each batch is handed to the batch writer, which returns one {@link Outcome} per item in the same
+ * order, and every caller is completed with the outcome of its own item. A caller that cancels does
+ * not withdraw its item; it is still written.
+ *
+ * @param <T> item to write
+ * @param <R> result of writing one item
+ */
+@Slf4j
+public final class WriteCoalescer<T, R> implements Disposable {
+
+    private final Function<List<T>, Mono<List<Outcome<R>>>> batchWriter;
+    private final DistributionSummary batchSizes;
+    private final Disposable subscription;
+    private volatile FluxSink<Pending<T, R>> sink;
+    private volatile boolean disposed;
+
+    /**
+     * @param concurrency batches written at the same time; further batches wait, bounding the load
+     *                    a burst puts on the database
+     */
+    public WriteCoalescer(int maxBatchSize, Duration window, int concurrency,
+                          Function<List<T>, Mono<List<Outcome<R>>>> batchWriter,
+                          DistributionSummary batchSizes) {
+        this.batchWriter = batchWriter;
+        this.batchSizes = batchSizes;
+        this.subscription = Flux.<Pending<T, R>>create(emitter -> sink = emitter)
+                .bufferTimeout(maxBatchSize, window, true)
+                .flatMap(this::write, concurrency)
+                .subscribe();
+    }
+
+    /**
+     * Fails with {@link IllegalStateException} once the coalescer is disposed.
+     */
+    public Mono<R> submit(T item) {
+        return Mono.create(caller -> {
+            // Checked and queued under the lock dispose() completes the sink with, so no item is left unanswered
+            synchronized (this) {
+                if (disposed) {
+                    caller.error(new IllegalStateException("Write coalescer is disposed"));
+                    return;
+                }
+                sink.next(new Pending<>(item, caller));
+            }
+        });
+    }
+
+    /**
+     * Stops accepting items; the batches already cut are still written.
+     */
+    @Override
+    public void dispose() {
+        synchronized (this) {
+            if (disposed) {
+                return;
+            }
+            disposed = true;
+            sink.complete();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private Mono<Void> write(List<Pending<T, R>> batch) {
+        batchSizes.record(batch.size());
+
+        return Mono.defer(() -> batchWriter.apply(batch.stream().map(Pending::item).toList()))
+                .doOnNext(outcomes -> {
+                    if (outcomes.size() != batch.size()) {
+                        throw new IllegalStateException("Batch writer returned " + outcomes.size()
+                                + " outcomes for " + batch.size() + " items");
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        Outcome<R> outcome = outcomes.get(i);
+                        MonoSink<R> caller = batch.get(i).caller();
+                        if (outcome.error() != null) {
+                            caller.error(outcome.error());
+                        } else {
+                            caller.success(outcome.value());
+                        }
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.error("Error writing coalesced batch of {} items: {}", batch.size(), error.getMessage());
+                    batch.forEach(pending -> pending.caller().error(error));
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * What writing one item of a batch produced: a value or an error.
+     */
+    public record Outcome<R>(R value, Throwable error) {
+
+        public static <R> Outcome<R> success(R value) {
+            return new Outcome<>(value, null);
+        }
+
+        public static <R> Outcome<R> failure(Throwable error) {
+            return new Outcome<>(null, error);
+        }
+    }
+
+    private record Pending<T, R>(T item, MonoSink<R> caller) {
+    }
+}
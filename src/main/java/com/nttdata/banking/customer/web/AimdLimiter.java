@@ -0,0 +1,86 @@
+package com.nttdata.banking.customer.web;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit adjusted by additive increase, multiplicative decrease.
+ * <p>
+ * A request that completes within the latency threshold while the limit is at least half used
+ * raises the limit by one over the course of a full window of requests; a slow or failed request
+ * multiplies it by the backoff ratio. The limit therefore follows what the backend can sustain,
+ * and load above it is turned away instead of queueing.
+ * <p>
+ * The requests in flight when the backend slows down all finish slow, so only the first of them
+ * backs off: a request that started before the last decrease was admitted under the old limit and
+ * says nothing about the new one. The limit thus drops at most once per round of requests.
+ */
+final class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private boolean decreased;
+    private long lastDecreaseNanos;
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * @return {@code false} when the limit is reached; otherwise {@link #release} must follow
+     */
+    boolean tryAcquire() {
+        int limitNow = getLimit();
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limitNow) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when the request took its slot
+     * @param endNanos   {@link System#nanoTime()} when it completed
+     * @param failed     the request failed in a way that suggests overload
+     */
+    void release(long startNanos, long endNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || endNanos - startNanos > latencyThresholdNanos) {
+                if (!decreased || startNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    decreased = true;
+                    lastDecreaseNanos = endNanos;
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Drops the slot without taking the request into account, for requests abandoned by the client.
+     */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
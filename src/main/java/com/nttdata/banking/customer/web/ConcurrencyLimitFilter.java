@@ -0,0 +1,135 @@
+package com.nttdata.banking.customer.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sheds load on the customer API before it queues up behind a slow database.
+ * <p>
+ * Reads and writes each have their own {@link AimdLimiter}, so a burst of slow writes does not
+ * starve reads. Requests over the limit get {@code 503} with {@code Retry-After} right away. Streams
+ * (change events, NDJSON exports, lookups and imports) are left out: they hold their connection for
+ * as long as there is data, and their duration says nothing about database latency. So are the
+ * requests whose cost depends on the data rather than on the database: listing every customer
+ * without a page {@code limit}, filters, which may read far more customers than they return, and
+ * batch creates. A large one is slow without the database being slow, and would shrink the limit
+ * for every other request.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class ConcurrencyLimitFilter implements WebFilter {
+
+    private static final String API_PATH = "/api/v1/customers";
+    private static final List<String> STREAMING_PATHS = List.of(API_PATH + "/changes", API_PATH + "/lookup", API_PATH + "/imports");
+    private static final List<String> UNBOUNDED_PATHS = List.of(API_PATH + "/filter", API_PATH + "/batch");
+
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+    private final AimdLimiter readLimiter;
+    private final AimdLimiter writeLimiter;
+    private final Counter readRejections;
+    private final Counter writeRejections;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${nttdata.customer.concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${nttdata.customer.concurrency-limit.min-limit:4}") int minLimit,
+                                  @Value("${nttdata.customer.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${nttdata.customer.concurrency-limit.retry-after:PT1S}") Duration retryAfter,
+                                  @Value("${nttdata.customer.concurrency-limit.read.initial-limit:100}") int readInitialLimit,
+                                  @Value("${nttdata.customer.concurrency-limit.read.max-limit:1000}") int readMaxLimit,
+                                  @Value("${nttdata.customer.concurrency-limit.read.latency-threshold:PT0.25S}") Duration readLatencyThreshold,
+                                  @Value("${nttdata.customer.concurrency-limit.write.initial-limit:50}") int writeInitialLimit,
+                                  @Value("${nttdata.customer.concurrency-limit.write.max-limit:500}") int writeMaxLimit,
+                                  @Value("${nttdata.customer.concurrency-limit.write.latency-threshold:PT0.5S}") Duration writeLatencyThreshold) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.readLimiter = new AimdLimiter(readInitialLimit, minLimit, readMaxLimit, readLatencyThreshold, backoffRatio);
+        this.writeLimiter = new AimdLimiter(writeInitialLimit, minLimit, writeMaxLimit, writeLatencyThreshold, backoffRatio);
+        this.readRejections = register(meterRegistry, "read", readLimiter);
+        this.writeRejections = register(meterRegistry, "write", writeLimiter);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled || !isLimited(request)) {
+            return chain.filter(exchange);
+        }
+
+        boolean read = HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod());
+        AimdLimiter limiter = read ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            (read ? readRejections : writeRejections).increment();
+            log.debug("Rejecting {} {}, concurrency limit {} reached", request.getMethod(), request.getPath().value(), limiter.getLimit());
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return exchange.getResponse().setComplete();
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limiter.cancel();
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    limiter.release(start, System.nanoTime(), failed);
+                });
+    }
+
+    private static boolean isLimited(ServerHttpRequest request) {
+        String path = request.getPath().value();
+        if (!path.startsWith(API_PATH)) {
+            return false;
+        }
+        for (String streamingPath : STREAMING_PATHS) {
+            if (path.startsWith(streamingPath)) {
+                return false;
+            }
+        }
+        if (UNBOUNDED_PATHS.contains(path)
+                || (path.equals(API_PATH) && HttpMethod.GET.equals(request.getMethod())
+                && !request.getQueryParams().containsKey("limit"))) {
+            return false;
+        }
+        List<MediaType> accept = request.getHeaders().getAccept();
+        return !accept.contains(MediaType.APPLICATION_NDJSON) && !accept.contains(MediaType.TEXT_EVENT_STREAM);
+    }
+
+    private static Counter register(MeterRegistry meterRegistry, String type, AimdLimiter limiter) {
+        Gauge.builder("customer.concurrency.limit", limiter, AimdLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("type", type)
+                .register(meterRegistry);
+        Gauge.builder("customer.concurrency.in.flight", limiter, AimdLimiter::getInFlight)
+                .tag("type", type)
+                .register(meterRegistry);
+        return Counter.builder("customer.concurrency.rejected")
+                .description("Requests rejected with 503 because the concurrency limit was reached")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.nttdata.banking.customer.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void containsEveryKeyPut() {
+        BloomFilter filter = BloomFilter.create(64 * 1024, 10_000);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.put('e', "customer" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain('e', "customer" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    void namespacesDoNotCollide() {
+        BloomFilter filter = BloomFilter.create(1024, 10);
+
+        filter.put('d', "12345678901");
+
+        assertThat(filter.mightContain('d', "12345678901")).isTrue();
+        assertThat(filter.mightContain('r', "12345678901")).isFalse();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearExpected() {
+        BloomFilter filter = BloomFilter.create(16 * 1024, 10_000);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put('e', "present" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain('e', "absent" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double expected = filter.expectedFalsePositiveRate(10_000);
+        assertThat(expected).isLessThan(0.01);
+        assertThat(falsePositives / 100_000.0).isLessThan(expected * 2);
+    }
+
+    @Test
+    void sizesFilterFromMemoryBudget() {
+        BloomFilter filter = BloomFilter.create(1024, 1000);
+
+        assertThat(filter.bitCount()).isEqualTo(8192);
+        assertThat(filter.hashFunctions()).isEqualTo(6);
+    }
+
+    @Test
+    void roundsBitCountUpToWholeWords() {
+        assertThat(new BloomFilter(100, 3).bitCount()).isEqualTo(128);
+        assertThat(BloomFilter.create(0, 1000).hashFunctions()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.nttdata.banking.customer.cache;
+
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerCacheInvalidatorTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final CustomerCache customerCache = new CustomerCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    private final CustomerCacheInvalidator invalidator = new CustomerCacheInvalidator(customerRepository, customerCache, true,
+            Duration.ofMillis(1), Duration.ofMillis(1));
+
+    @AfterEach
+    void tearDown() {
+        invalidator.stop();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamEvent<Customer> event(String id, BsonValue resumeToken) {
+        ChangeStreamEvent<Customer> event = mock(ChangeStreamEvent.class);
+        when(event.getBody()).thenReturn(Customer.builder().id(id).build());
+        when(event.getResumeToken()).thenReturn(resumeToken);
+        return event;
+    }
+
+    private void cache(String id) {
+        customerCache.getById(id, key -> Mono.just(Customer.builder().id(key).build())).block();
+    }
+
+    @Test
+    void changesDropTheirCustomer() {
+        Sinks.Many<ChangeStreamEvent<Customer>> changes = Sinks.many().unicast().onBackpressureBuffer();
+        when(customerRepository.watchChanges(Set.of(), null, null)).thenReturn(changes.asFlux());
+        invalidator.start();
+        cache("1");
+        cache("2");
+
+        changes.tryEmitNext(event("1", new BsonDocument("_data", new BsonString("01"))));
+
+        assertThat(customerCache.getIfPresent("1")).isNull();
+        assertThat(customerCache.getIfPresent("2")).isNotNull();
+    }
+
+    @Test
+    void failedStreamResumesAfterLastEventWithoutDroppingTheCache() {
+        BsonValue resumeToken = new BsonDocument("_data", new BsonString("01"));
+        Sinks.Many<ChangeStreamEvent<Customer>> changes = Sinks.many().unicast().onBackpressureBuffer();
+        when(customerRepository.watchChanges(Set.of(), null, null)).thenReturn(changes.asFlux());
+        when(customerRepository.watchChanges(Set.of(), null, resumeToken)).thenReturn(Flux.never());
+        invalidator.start();
+        cache("2");
+
+        changes.tryEmitNext(event("1", resumeToken));
+        changes.tryEmitError(new DataAccessResourceFailureException("connection reset"));
+
+        verify(customerRepository, timeout(1000)).watchChanges(Set.of(), null, resumeToken);
+        assertThat(customerCache.getIfPresent("2")).isNotNull();
+    }
+
+    @Test
+    void streamOpenedWithoutResumeTokenDropsTheCache() {
+        when(customerRepository.watchChanges(Set.of(), null, null)).thenReturn(Flux.never());
+        cache("1");
+
+        invalidator.start();
+
+        verify(customerRepository, timeout(1000)).watchChanges(Set.of(), null, null);
+        assertThat(customerCache.getIfPresent("1")).isNull();
+    }
+}
@@ -0,0 +1,141 @@
+package com.nttdata.banking.customer.cache;
+
+import com.nttdata.banking.customer.config.CustomerIndexMigration;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerUniqueKeyFilterTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final CustomerIndexMigration indexMigration = mock(CustomerIndexMigration.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(indexMigration.hasUniqueIndex(eq(Customer.class), anyString())).thenReturn(true);
+    }
+
+    private CustomerUniqueKeyFilter filter(boolean enabled) {
+        return new CustomerUniqueKeyFilter(customerRepository, indexMigration, meterRegistry, enabled,
+                DataSize.ofKilobytes(64), 10_000, 100);
+    }
+
+    private static Customer customer(String email, String documentNumber, String ruc) {
+        return Customer.builder()
+                .email(email)
+                .documentNumber(documentNumber)
+                .ruc(ruc)
+                .build();
+    }
+
+    @Test
+    void everyKeyMightExistUntilLoaded() {
+        CustomerUniqueKeyFilter filter = filter(true);
+
+        assertThat(filter.mightExist("new@example.com", "12345678", null)).isTrue();
+        assertThat(filter.mightExistEmail("new@example.com")).isTrue();
+    }
+
+    @Test
+    void answersFromLoadedKeys() {
+        when(customerRepository.streamUniqueKeys(anyInt()))
+                .thenReturn(Flux.just(customer("ana@example.com", "12345678", "20123456789")));
+        CustomerUniqueKeyFilter filter = filter(true);
+
+        filter.load();
+
+        assertThat(filter.mightExist("ana@example.com", "87654321", null)).isTrue();
+        assertThat(filter.mightExist("new@example.com", "87654321", "20987654321")).isFalse();
+        assertThat(filter.mightExistEmail("ana@example.com")).isTrue();
+        assertThat(filter.mightExistDocumentNumber("87654321")).isFalse();
+        assertThat(filter.mightExistRuc("20123456789")).isTrue();
+        assertThat(meterRegistry.get("customer.unique.filter.checks").tag("result", "definitely-absent").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void keysAreNamespacedByField() {
+        when(customerRepository.streamUniqueKeys(anyInt()))
+                .thenReturn(Flux.just(customer("ana@example.com", "20123456789", null)));
+        CustomerUniqueKeyFilter filter = filter(true);
+
+        filter.load();
+
+        assertThat(filter.mightExistDocumentNumber("20123456789")).isTrue();
+        assertThat(filter.mightExistRuc("20123456789")).isFalse();
+    }
+
+    @Test
+    void learnsCustomersWrittenAfterLoad() {
+        when(customerRepository.streamUniqueKeys(anyInt())).thenReturn(Flux.empty());
+        CustomerUniqueKeyFilter filter = filter(true);
+        filter.load();
+
+        filter.add(customer("ana@example.com", "12345678", null));
+
+        assertThat(filter.mightExistEmail("ana@example.com")).isTrue();
+        assertThat(filter.mightExistDocumentNumber("12345678")).isTrue();
+    }
+
+    @Test
+    void fieldWithoutUniqueIndexIsAlwaysQueried() {
+        when(indexMigration.hasUniqueIndex(Customer.class, "ruc")).thenReturn(false);
+        when(customerRepository.streamUniqueKeys(anyInt())).thenReturn(Flux.empty());
+        CustomerUniqueKeyFilter filter = filter(true);
+
+        filter.load();
+
+        assertThat(filter.mightExistRuc("20987654321")).isTrue();
+        assertThat(filter.mightExist("new@example.com", "87654321", "20987654321")).isTrue();
+        assertThat(filter.mightExistEmail("new@example.com")).isFalse();
+        assertThat(filter.mightExist("new@example.com", "87654321", null)).isFalse();
+    }
+
+    @Test
+    void falsePositivesAreOnlyCountedForFilterAnswers() {
+        when(indexMigration.hasUniqueIndex(Customer.class, "email")).thenReturn(false);
+        when(customerRepository.streamUniqueKeys(anyInt())).thenReturn(Flux.empty());
+        CustomerUniqueKeyFilter filter = filter(true);
+        filter.load();
+
+        filter.recordFalsePositive();
+
+        assertThat(meterRegistry.get("customer.unique.filter.checks").tag("result", "false-positive").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void failedLoadKeepsQueryingMongo() {
+        when(customerRepository.streamUniqueKeys(anyInt())).thenReturn(Flux.error(new IllegalStateException("connection refused")));
+        CustomerUniqueKeyFilter filter = filter(true);
+
+        filter.load();
+
+        assertThat(filter.mightExist("new@example.com", "12345678", null)).isTrue();
+    }
+
+    @Test
+    void disabledFilterNeverLoads() {
+        CustomerUniqueKeyFilter filter = filter(false);
+
+        filter.load();
+
+        verify(customerRepository, never()).streamUniqueKeys(anyInt());
+        assertThat(filter.mightExist("new@example.com", "12345678", null)).isTrue();
+    }
+}
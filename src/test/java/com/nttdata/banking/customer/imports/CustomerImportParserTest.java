@@ -0,0 +1,128 @@
+package com.nttdata.banking.customer.imports;
+
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.enums.ImportFormat;
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerImportParserTest {
+
+    private static final String HEADER = "customerType,firstName,lastName,documentType,documentNumber,phoneNumber,email,address";
+
+    private final CustomerImportParser parser = new CustomerImportParser(Jackson2ObjectMapperBuilder.json().build());
+
+    /**
+     * Splits the text into buffers of a few bytes, so lines and multi-byte characters span buffers as
+     * they do in a real upload.
+     */
+    private static Flux<DataBuffer> body(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return Flux.range(0, (bytes.length + 6) / 7)
+                .map(chunk -> {
+                    int from = chunk * 7;
+                    return DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, from, Math.min(from + 7, bytes.length)));
+                });
+    }
+
+    private List<ImportRow> parse(ImportFormat format, String text, long afterLine) {
+        return parser.parse(format, body(text), afterLine).collectList().block();
+    }
+
+    @Test
+    void parsesCsvRows() {
+        List<ImportRow> rows = parse(ImportFormat.CSV, HEADER + "\n"
+                + "PERSONAL|VIP,José,Núñez,DNI,12345678,+51987654321,jose@example.com,Av. Arequipa 123\n", 0);
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.isParsed()).isTrue();
+            assertThat(row.line()).isEqualTo(2);
+            assertThat(row.request().getCustomerType()).containsExactlyInAnyOrder(CustomerType.PERSONAL, CustomerType.VIP);
+            assertThat(row.request().getFirstName()).isEqualTo("José");
+            assertThat(row.request().getDocumentType()).isEqualTo(DocumentType.DNI);
+            assertThat(row.request().getAddress()).isEqualTo("Av. Arequipa 123");
+        });
+    }
+
+    @Test
+    void quotedValuesKeepCommasAndQuotes() {
+        List<ImportRow> rows = parse(ImportFormat.CSV, HEADER + "\r\n"
+                + "PERSONAL,Ana,\"Torres, \"\"la Rosa\"\"\",DNI,12345678,+51987654321,ana@example.com,\"Jr. Lima 1, Dpto 2\"\r\n", 0);
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.request().getLastName()).isEqualTo("Torres, \"la Rosa\"");
+            assertThat(row.request().getAddress()).isEqualTo("Jr. Lima 1, Dpto 2");
+        });
+    }
+
+    @Test
+    void headerMayStartWithByteOrderMark() {
+        List<ImportRow> rows = parse(ImportFormat.CSV, "\uFEFF" + HEADER + "\n"
+                + "PERSONAL,Ana,Torres,DNI,12345678,+51987654321,ana@example.com,Jr. Lima 1\n", 0);
+
+        assertThat(rows).singleElement().satisfies(row -> assertThat(row.isParsed()).isTrue());
+    }
+
+    @Test
+    void malformedLinesAreRejectedWithoutStoppingTheImport() {
+        List<ImportRow> rows = parse(ImportFormat.CSV, HEADER + "\n"
+                + "PERSONAL,Ana,\"Torres,DNI,12345678,+51987654321,ana@example.com,Jr. Lima 1\n"
+                + "PERSONAL,Ana,Torres\n"
+                + "UNKNOWN,Ana,Torres,DNI,12345678,+51987654321,ana@example.com,Jr. Lima 1\n"
+                + "PERSONAL,Luis,Rojas,DNI,87654321,+51912345678,luis@example.com,Jr. Cusco 2\n", 0);
+
+        assertThat(rows).extracting(ImportRow::line).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(rows.get(0).error()).isEqualTo("Unterminated quoted value");
+        assertThat(rows.get(1).error()).isEqualTo("Expected 8 columns but found 3");
+        assertThat(rows.get(2).error()).startsWith("Invalid value: ");
+        assertThat(rows.get(3).isParsed()).isTrue();
+    }
+
+    @Test
+    void resumeSkipsLinesAlreadyImported() {
+        List<ImportRow> rows = parse(ImportFormat.CSV, HEADER + "\n"
+                + "PERSONAL,Ana,Torres,DNI,12345678,+51987654321,ana@example.com,Jr. Lima 1\n"
+                + "\n"
+                + "PERSONAL,Luis,Rojas,DNI,87654321,+51912345678,luis@example.com,Jr. Cusco 2\n", 2);
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.line()).isEqualTo(4);
+            assertThat(row.request().getFirstName()).isEqualTo("Luis");
+        });
+    }
+
+    @Test
+    void unknownColumnFailsTheImport() {
+        StepVerifier.create(parser.parse(ImportFormat.CSV, body("firstName,password\nAna,secret\n"), 0))
+                .expectError(InvalidQueryParameterException.class)
+                .verify();
+    }
+
+    @Test
+    void parsesNdjsonAndResumes() {
+        List<ImportRow> rows = parse(ImportFormat.NDJSON,
+                "{\"firstName\":\"Ana\",\"customerType\":[\"PERSONAL\"]}\n"
+                        + "{not json}\n"
+                        + "{\"firstName\":\"Luis\",\"customerType\":[\"PERSONAL\"]}", 1);
+
+        assertThat(rows).extracting(ImportRow::line).containsExactly(2L, 3L);
+        assertThat(rows.get(0).error()).startsWith("Invalid JSON: ");
+        assertThat(rows.get(1).request().getFirstName()).isEqualTo("Luis");
+    }
+
+    @Test
+    void emptyFileHasNoRows() {
+        assertThat(parse(ImportFormat.CSV, "", 0)).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.nttdata.banking.customer.mapper;
+
+import com.nttdata.banking.customer.dto.request.CustomerPatchRequestDTO;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.models.entity.Customer;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerMapperTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    private final CustomerMapper customerMapper = Mappers.getMapper(CustomerMapper.class);
+
+    private static Customer storedCustomer() {
+        return Customer.builder()
+                .id("65a4f0c2e4b0a1b2c3d4e5f6")
+                .customerType(new HashSet<>(Set.of(CustomerType.PERSONAL)))
+                .firstName("Ana")
+                .lastName("Torres")
+                .documentType(DocumentType.DNI)
+                .documentNumber("12345678")
+                .phoneNumber("+51987654321")
+                .email("ana@example.com")
+                .address("Av. Arequipa 123")
+                .createdAt(CREATED_AT)
+                .active(true)
+                .version(3L)
+                .build();
+    }
+
+    @Test
+    void patchChangesOnlyProvidedFields() {
+        Customer customer = storedCustomer();
+
+        customerMapper.patchEntityFromDto(CustomerPatchRequestDTO.builder()
+                .lastName("Quispe")
+                .email("ana.quispe@example.com")
+                .build(), customer);
+
+        assertThat(customer.getLastName()).isEqualTo("Quispe");
+        assertThat(customer.getEmail()).isEqualTo("ana.quispe@example.com");
+        assertThat(customer.getFirstName()).isEqualTo("Ana");
+        assertThat(customer.getDocumentNumber()).isEqualTo("12345678");
+        assertThat(customer.getPhoneNumber()).isEqualTo("+51987654321");
+        assertThat(customer.getAddress()).isEqualTo("Av. Arequipa 123");
+        assertThat(customer.getCustomerType()).containsExactly(CustomerType.PERSONAL);
+    }
+
+    @Test
+    void patchReplacesCustomerTypes() {
+        Customer customer = storedCustomer();
+
+        customerMapper.patchEntityFromDto(CustomerPatchRequestDTO.builder()
+                .customerType(Set.of(CustomerType.PERSONAL, CustomerType.VIP))
+                .build(), customer);
+
+        assertThat(customer.getCustomerType()).containsExactlyInAnyOrder(CustomerType.PERSONAL, CustomerType.VIP);
+    }
+
+    @Test
+    void patchKeepsIdentityAndVersion() {
+        Customer customer = storedCustomer();
+
+        customerMapper.patchEntityFromDto(CustomerPatchRequestDTO.builder()
+                .firstName("Ana María")
+                .build(), customer);
+
+        assertThat(customer.getId()).isEqualTo("65a4f0c2e4b0a1b2c3d4e5f6");
+        assertThat(customer.getVersion()).isEqualTo(3L);
+        assertThat(customer.getCreatedAt()).isEqualTo(CREATED_AT);
+        assertThat(customer.getUpdatedAt()).isNull();
+        assertThat(customer.getActive()).isTrue();
+    }
+}
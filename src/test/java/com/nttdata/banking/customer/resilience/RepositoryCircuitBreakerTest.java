@@ -0,0 +1,121 @@
+package com.nttdata.banking.customer.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryCircuitBreakerTest {
+
+    private static RepositoryCircuitBreaker breaker(Duration openDuration) {
+        return new RepositoryCircuitBreaker("test",
+                new ResilienceProperties.CircuitBreaker(0.5, 10, 4, openDuration, 2));
+    }
+
+    private static void fail(RepositoryCircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+    }
+
+    @Test
+    void staysClosedUntilMinimumCalls() {
+        RepositoryCircuitBreaker breaker = breaker(Duration.ofHours(1));
+
+        fail(breaker, 3);
+
+        assertThat(breaker.getState()).isEqualTo(RepositoryCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void staysClosedBelowFailureRate() {
+        RepositoryCircuitBreaker breaker = breaker(Duration.ofHours(1));
+
+        for (int i = 0; i < 3; i++) {
+            breaker.tryAcquire();
+            breaker.onSuccess();
+        }
+        fail(breaker, 2);
+
+        assertThat(breaker.getState()).isEqualTo(RepositoryCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensAtFailureRateAndRefusesCalls() {
+        RepositoryCircuitBreaker breaker = breaker(Duration.ofHours(1));
+
+        fail(breaker, 4);
+
+        assertThat(breaker.getState()).isEqualTo(RepositoryCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.remainingOpenNanos()).isPositive();
+    }
+
+    @Test
+    void closesAfterAllTrialCallsSucceed() {
+        RepositoryCircuitBreaker breaker = breaker(Duration.ZERO);
+        fail(breaker, 4);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(RepositoryCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(RepositoryCircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(RepositoryCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void reopensOnTrialFailure() {
+        RepositoryCircuitBreaker breaker = breaker(Duration.ofMillis(50));
+        fail(breaker, 4);
+        await(Duration.ofMillis(60));
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(RepositoryCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void cancelledTrialCallReturnsItsPermit() {
+        RepositoryCircuitBreaker breaker = breaker(Duration.ZERO);
+        fail(breaker, 4);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onCancel();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(RepositoryCircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void closedCircuitForgetsFailuresOutsideWindow() {
+        RepositoryCircuitBreaker breaker = breaker(Duration.ofHours(1));
+        fail(breaker, 3);
+
+        for (int i = 0; i < 10; i++) {
+            breaker.tryAcquire();
+            breaker.onSuccess();
+        }
+        fail(breaker, 4);
+
+        assertThat(breaker.getState()).isEqualTo(RepositoryCircuitBreaker.State.CLOSED);
+    }
+
+    private static void await(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
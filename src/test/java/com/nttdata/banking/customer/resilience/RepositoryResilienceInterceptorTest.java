@@ -0,0 +1,252 @@
+package com.nttdata.banking.customer.resilience;
+
+import com.nttdata.banking.customer.exception.RepositoryUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryResilienceInterceptorTest {
+
+    private static final Duration DEADLINE = Duration.ofSeconds(1);
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(50);
+    private static final Duration LONG_RUNNING_DEADLINE = Duration.ofMinutes(2);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeRepository target = new FakeRepository();
+    private TestRepository repository;
+
+    interface TestRepository {
+        Mono<String> findById(String id);
+
+        Flux<Integer> findAll();
+
+        Mono<String> aggregateStatistics();
+    }
+
+    static final class FakeRepository implements TestRepository {
+        private Supplier<Mono<String>> single = () -> Mono.just("value");
+        private Supplier<Flux<Integer>> many = Flux::empty;
+
+        @Override
+        public Mono<String> findById(String id) {
+            return Mono.defer(single);
+        }
+
+        @Override
+        public Flux<Integer> findAll() {
+            return Flux.defer(many);
+        }
+
+        @Override
+        public Mono<String> aggregateStatistics() {
+            return Mono.defer(single);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ResilienceProperties properties = new ResilienceProperties(true, DEADLINE, Map.of(), Set.of(),
+                Set.of("aggregateStatistics"), LONG_RUNNING_DEADLINE,
+                new ResilienceProperties.Hedge(true, 0.95, HEDGE_DELAY, 1),
+                new ResilienceProperties.CircuitBreaker(0.5, 10, 2, Duration.ofHours(1), 1));
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(TestRepository.class);
+        proxyFactory.addAdvice(new RepositoryResilienceInterceptor(properties, meterRegistry, "test"));
+        repository = (TestRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    void hedgeAnswersWhenFirstAttemptIsSlow() {
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean firstCancelled = new AtomicBoolean();
+        target.single = () -> attempts.incrementAndGet() == 1
+                ? Mono.<String>never().doOnCancel(() -> firstCancelled.set(true))
+                : Mono.just("hedged");
+
+        StepVerifier.create(repository.findById("id"))
+                .expectNext("hedged")
+                .verifyComplete();
+
+        assertThat(attempts).hasValue(2);
+        assertThat(firstCancelled).isTrue();
+        assertThat(counter("customer.repository.hedges.won")).isEqualTo(1);
+    }
+
+    @Test
+    void hedgeIsCancelledWhenFirstAttemptWins() {
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean hedgeCancelled = new AtomicBoolean();
+        target.single = () -> attempts.incrementAndGet() == 1
+                ? Mono.delay(HEDGE_DELAY.multipliedBy(3)).thenReturn("first")
+                : Mono.<String>never().doOnCancel(() -> hedgeCancelled.set(true));
+
+        StepVerifier.create(repository.findById("id"))
+                .expectNext("first")
+                .verifyComplete();
+
+        assertThat(attempts).hasValue(2);
+        assertThat(hedgeCancelled).isTrue();
+        assertThat(counter("customer.repository.hedges")).isEqualTo(1);
+        assertThat(counter("customer.repository.hedges.won")).isZero();
+    }
+
+    @Test
+    void noHedgeBeforeLatenciesAreKnown() {
+        AtomicInteger attempts = new AtomicInteger();
+        target.single = () -> {
+            attempts.incrementAndGet();
+            return Mono.delay(HEDGE_DELAY.multipliedBy(3)).thenReturn("value");
+        };
+
+        StepVerifier.create(repository.findById("id"))
+                .expectNext("value")
+                .verifyComplete();
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void singleResultMissingDeadlineCountsAgainstCircuit() {
+        target.single = Mono::never;
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.withVirtualTime(() -> repository.findById("id"))
+                    .thenAwait(DEADLINE)
+                    .expectError(RepositoryUnavailableException.class)
+                    .verify();
+        }
+
+        assertThat(circuitState()).isEqualTo(RepositoryCircuitBreaker.State.OPEN.ordinal());
+    }
+
+    @Test
+    void longRunningMethodGetsItsOwnDeadline() {
+        target.single = () -> Mono.delay(DEADLINE.multipliedBy(10)).thenReturn("statistics");
+
+        StepVerifier.withVirtualTime(() -> repository.aggregateStatistics())
+                .thenAwait(DEADLINE.multipliedBy(10))
+                .expectNext("statistics")
+                .verifyComplete();
+    }
+
+    @Test
+    void longRunningMethodMissingDeadlineDoesNotCountAgainstCircuit() {
+        target.single = Mono::never;
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.withVirtualTime(() -> repository.aggregateStatistics())
+                    .thenAwait(LONG_RUNNING_DEADLINE)
+                    .expectError(RepositoryUnavailableException.class)
+                    .verify();
+        }
+
+        assertThat(circuitState()).isEqualTo(RepositoryCircuitBreaker.State.CLOSED.ordinal());
+    }
+
+    @Test
+    void streamPausedByConsumerIsNotTimedOut() {
+        target.many = () -> Flux.range(1, 3);
+
+        StepVerifier.withVirtualTime(() -> repository.findAll(), 1)
+                .expectNext(1)
+                .thenAwait(DEADLINE.multipliedBy(10))
+                .thenRequest(2)
+                .expectNext(2, 3)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamGapsAfterFirstElementAreNotTimedOut() {
+        target.many = () -> Flux.concat(Flux.just(1), Mono.delay(DEADLINE.multipliedBy(5)).thenReturn(2));
+
+        StepVerifier.withVirtualTime(() -> repository.findAll())
+                .expectNext(1)
+                .thenAwait(DEADLINE.multipliedBy(5))
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamMissingFirstElementDeadlineDoesNotCountAgainstCircuit() {
+        target.many = Flux::never;
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.withVirtualTime(() -> repository.findAll())
+                    .thenAwait(DEADLINE)
+                    .expectError(RepositoryUnavailableException.class)
+                    .verify();
+        }
+
+        assertThat(circuitState()).isEqualTo(RepositoryCircuitBreaker.State.CLOSED.ordinal());
+    }
+
+    @Test
+    void queryStoppedByMaxTimeDoesNotCountAgainstCircuit() {
+        target.single = () -> Mono.error(new QueryTimeoutException("operation exceeded time limit"));
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(repository.findById("id"))
+                    .expectError(QueryTimeoutException.class)
+                    .verify();
+        }
+
+        assertThat(circuitState()).isEqualTo(RepositoryCircuitBreaker.State.CLOSED.ordinal());
+    }
+
+    @Test
+    void openCircuitRefusesCalls() {
+        AtomicInteger calls = new AtomicInteger();
+        target.single = () -> {
+            calls.incrementAndGet();
+            return Mono.error(new DataAccessResourceFailureException("connection refused"));
+        };
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(repository.findById("id"))
+                    .expectError(DataAccessResourceFailureException.class)
+                    .verify();
+        }
+
+        StepVerifier.create(repository.findById("id"))
+                .expectError(RepositoryUnavailableException.class)
+                .verify();
+
+        assertThat(calls).hasValue(2);
+        assertThat(counter("customer.repository.circuit.rejected")).isEqualTo(1);
+    }
+
+    /**
+     * Records one fast call, after which reads are hedged after {@link #HEDGE_DELAY}.
+     */
+    private void warmUp() {
+        StepVerifier.create(repository.findById("id"))
+                .expectNext("value")
+                .verifyComplete();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private double circuitState() {
+        return meterRegistry.get("customer.repository.circuit.state").gauge().value();
+    }
+}
@@ -0,0 +1,102 @@
+package com.nttdata.banking.customer.search;
+
+import com.nttdata.banking.customer.models.entity.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchKeysTest {
+
+    @Test
+    void keysAreFoldedAndSplitIntoWords() {
+        Customer customer = Customer.builder()
+                .firstName("José María")
+                .lastName("Núñez-Peña")
+                .email("Jose.Nunez@Example.com")
+                .build();
+
+        assertThat(SearchKeys.of(customer))
+                .containsExactly("jose", "maria", "nunez", "pena", "example", "com");
+    }
+
+    @Test
+    void companyNameIsSearchable() {
+        Customer customer = Customer.builder()
+                .companyName("Inversiones Andinas S.A.C.")
+                .build();
+
+        assertThat(SearchKeys.of(customer)).containsExactly("inversiones", "andinas", "s", "a", "c");
+    }
+
+    @Test
+    void longWordsAreTruncated() {
+        Customer customer = Customer.builder()
+                .firstName("a".repeat(100))
+                .build();
+
+        assertThat(SearchKeys.of(customer)).containsExactly("a".repeat(64));
+    }
+
+    @Test
+    void customerWithoutSearchableFieldsHasNoKeys() {
+        assertThat(SearchKeys.of(Customer.builder().build())).isEmpty();
+    }
+
+    @Test
+    void queryTermsAreNormalizedLikeKeys() {
+        assertThat(SearchKeys.terms("  NÚÑ  jose,jose ")).containsExactly("nun", "jose");
+    }
+
+    @Test
+    void queryTermsAreLimited() {
+        assertThat(SearchKeys.terms("a b c d e f g")).containsExactly("a", "b", "c", "d", "e");
+    }
+
+    @Test
+    void prefixesOfEveryKeyAreStored() {
+        Customer customer = Customer.builder()
+                .firstName("Ana")
+                .lastName("Alva")
+                .build();
+
+        SearchKeys.apply(customer);
+
+        assertThat(customer.getSearchKeys()).containsExactly("ana", "alva");
+        assertThat(customer.getSearchPrefixes()).containsExactly("a", "an", "ana", "al", "alv", "alva");
+    }
+
+    @Test
+    void prefixesStopAtMaximumLength() {
+        Customer customer = Customer.builder()
+                .companyName("Transportes")
+                .build();
+
+        SearchKeys.apply(customer);
+
+        assertThat(customer.getSearchPrefixes())
+                .hasSize(SearchKeys.MAX_PREFIX_LENGTH)
+                .endsWith("transporte");
+    }
+
+    @Test
+    void longTermsAreLookedUpByTheirStoredPrefix() {
+        assertThat(SearchKeys.prefixOf("ana")).isEqualTo("ana");
+        assertThat(SearchKeys.prefixOf("transportes")).isEqualTo("transporte");
+    }
+
+    @Test
+    void applyReplacesStaleKeys() {
+        Customer customer = Customer.builder()
+                .firstName("Ana")
+                .searchKeys(List.of("old"))
+                .searchPrefixes(List.of("o", "ol", "old"))
+                .build();
+
+        SearchKeys.apply(customer);
+
+        assertThat(customer.getSearchKeys()).containsExactly("ana");
+        assertThat(customer.getSearchPrefixes()).containsExactly("a", "an", "ana");
+    }
+}
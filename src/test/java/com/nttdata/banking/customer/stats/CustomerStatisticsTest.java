@@ -0,0 +1,149 @@
+package com.nttdata.banking.customer.stats;
+
+import com.nttdata.banking.customer.dto.response.CustomerStatisticsDTO;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.models.entity.Customer;
+import com.nttdata.banking.customer.repositories.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerStatisticsTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CustomerStatistics statistics = new CustomerStatistics(customerRepository, meterRegistry);
+
+    private static Customer customer(DocumentType documentType, boolean active, CustomerType... customerTypes) {
+        return Customer.builder()
+                .customerType(new HashSet<>(Set.of(customerTypes)))
+                .documentType(documentType)
+                .active(active)
+                .build();
+    }
+
+    private static Document aggregation(long active, long inactive, long personal, long business, long dni, long ruc) {
+        return new Document()
+                .append("byActive", List.of(
+                        new Document("_id", true).append("count", active),
+                        new Document("_id", false).append("count", inactive)))
+                .append("byCustomerType", List.of(
+                        new Document("_id", "PERSONAL").append("count", personal),
+                        new Document("_id", "BUSINESS").append("count", business)))
+                .append("byDocumentType", List.of(
+                        new Document("_id", "DNI").append("count", dni),
+                        new Document("_id", "RUC").append("count", ruc)));
+    }
+
+    @Test
+    void writesMoveCounters() {
+        Customer personal = customer(DocumentType.DNI, true, CustomerType.PERSONAL, CustomerType.VIP);
+        Customer business = customer(DocumentType.RUC, false, CustomerType.BUSINESS);
+
+        statistics.added(personal);
+        statistics.added(business);
+        statistics.removed(business);
+
+        CustomerStatisticsDTO snapshot = statistics.snapshot();
+        assertThat(snapshot.getTotal()).isEqualTo(1);
+        assertThat(snapshot.getActive()).isEqualTo(1);
+        assertThat(snapshot.getInactive()).isZero();
+        assertThat(snapshot.getByCustomerType())
+                .containsEntry(CustomerType.PERSONAL, 1L)
+                .containsEntry(CustomerType.VIP, 1L)
+                .containsEntry(CustomerType.BUSINESS, 0L);
+        assertThat(snapshot.getByDocumentType()).containsEntry(DocumentType.DNI, 1L);
+    }
+
+    @Test
+    void changeMovesCustomerBetweenDimensions() {
+        Customer customer = customer(DocumentType.DNI, true, CustomerType.PERSONAL);
+        statistics.added(customer);
+
+        CustomerStatistics.Dimensions previous = CustomerStatistics.Dimensions.of(customer);
+        customer.setCustomerType(new HashSet<>(Set.of(CustomerType.BUSINESS)));
+        customer.setDocumentType(DocumentType.RUC);
+        customer.setActive(false);
+        statistics.changed(previous, customer);
+
+        CustomerStatisticsDTO snapshot = statistics.snapshot();
+        assertThat(snapshot.getTotal()).isEqualTo(1);
+        assertThat(snapshot.getActive()).isZero();
+        assertThat(snapshot.getByCustomerType())
+                .containsEntry(CustomerType.PERSONAL, 0L)
+                .containsEntry(CustomerType.BUSINESS, 1L);
+        assertThat(snapshot.getByDocumentType())
+                .containsEntry(DocumentType.DNI, 0L)
+                .containsEntry(DocumentType.RUC, 1L);
+    }
+
+    @Test
+    void reconcileReplacesCountersWithAggregation() {
+        statistics.added(customer(DocumentType.DNI, true, CustomerType.PERSONAL));
+        when(customerRepository.aggregateStatistics()).thenReturn(Mono.just(aggregation(3, 1, 3, 1, 3, 1)));
+
+        statistics.reconcile();
+
+        CustomerStatisticsDTO snapshot = statistics.snapshot();
+        assertThat(snapshot.getTotal()).isEqualTo(4);
+        assertThat(snapshot.getActive()).isEqualTo(3);
+        assertThat(snapshot.getInactive()).isEqualTo(1);
+        assertThat(snapshot.getByCustomerType()).containsEntry(CustomerType.PERSONAL, 3L).containsEntry(CustomerType.BUSINESS, 1L);
+        assertThat(snapshot.getByDocumentType()).containsEntry(DocumentType.DNI, 3L).containsEntry(DocumentType.RUC, 1L);
+        assertThat(snapshot.getReconciledAt()).isNotNull();
+        assertThat(meterRegistry.get("customer.stats.drift").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void writesDuringReconciliationAreKept() {
+        Sinks.One<Document> result = Sinks.one();
+        when(customerRepository.aggregateStatistics()).thenReturn(result.asMono());
+
+        statistics.reconcile();
+        statistics.added(customer(DocumentType.DNI, true, CustomerType.PERSONAL));
+        result.tryEmitValue(aggregation(3, 1, 3, 1, 3, 1));
+
+        CustomerStatisticsDTO snapshot = statistics.snapshot();
+        assertThat(snapshot.getTotal()).isEqualTo(5);
+        assertThat(snapshot.getActive()).isEqualTo(4);
+        assertThat(snapshot.getByCustomerType()).containsEntry(CustomerType.PERSONAL, 4L);
+    }
+
+    @Test
+    void reconciliationIsSkippedWhileOneIsRunning() {
+        Sinks.One<Document> result = Sinks.one();
+        when(customerRepository.aggregateStatistics()).thenReturn(result.asMono());
+
+        statistics.reconcile();
+        statistics.reconcile();
+        result.tryEmitValue(aggregation(0, 0, 0, 0, 0, 0));
+        statistics.reconcile();
+
+        verify(customerRepository, times(2)).aggregateStatistics();
+    }
+
+    @Test
+    void failedReconciliationKeepsCounters() {
+        statistics.added(customer(DocumentType.DNI, true, CustomerType.PERSONAL));
+        when(customerRepository.aggregateStatistics()).thenReturn(Mono.error(new IllegalStateException("connection refused")));
+
+        statistics.reconcile();
+
+        assertThat(statistics.snapshot().getTotal()).isEqualTo(1);
+        assertThat(statistics.snapshot().getReconciledAt()).isNull();
+    }
+}
@@ -0,0 +1,69 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    private static final String ID = new ObjectId().toHexString();
+
+    @Test
+    void decodesWhatItEncodes() {
+        String cursor = CursorCodec.encode(ID);
+
+        assertThat(CursorCodec.decode(cursor)).isEqualTo(ID);
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        assertThat(CursorCodec.encode(ID)).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsInvalidBase64() {
+        assertThatThrownBy(() -> CursorCodec.decode("not a cursor!"))
+                .isInstanceOf(InvalidQueryParameterException.class)
+                .hasMessage("Invalid pagination cursor: not a cursor!");
+    }
+
+    @Test
+    void rejectsCursorThatIsNotAnObjectId() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("customer-1".getBytes(StandardCharsets.US_ASCII));
+
+        assertThatThrownBy(() -> CursorCodec.decode(cursor))
+                .isInstanceOf(InvalidQueryParameterException.class);
+    }
+
+    @Test
+    void decodesWhatItEncodesRanked() {
+        CursorCodec.RankedCursor cursor = CursorCodec.decodeRanked(CursorCodec.encodeRanked(1, ID));
+
+        assertThat(cursor.rank()).isEqualTo(1);
+        assertThat(cursor.afterId()).isEqualTo(ID);
+    }
+
+    @Test
+    void rankedCursorIsNotAPlainCursor() {
+        assertThatThrownBy(() -> CursorCodec.decode(CursorCodec.encodeRanked(0, ID)))
+                .isInstanceOf(InvalidQueryParameterException.class);
+        assertThatThrownBy(() -> CursorCodec.decodeRanked(CursorCodec.encode(ID)))
+                .isInstanceOf(InvalidQueryParameterException.class);
+    }
+
+    @Test
+    void rejectsRankedCursorWithMultiDigitRank() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("12:" + ID).getBytes(StandardCharsets.US_ASCII));
+
+        assertThatThrownBy(() -> CursorCodec.decodeRanked(cursor))
+                .isInstanceOf(InvalidQueryParameterException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class CustomerFieldSetTest {
+
+    @Test
+    void projectsIdAsMongoId() {
+        CustomerFieldSet fieldSet = CustomerFieldSet.parse("id,email");
+
+        assertThat(fieldSet.mongoFields()).containsExactly("_id", "email");
+    }
+
+    @Test
+    void ignoresBlanksAndRepeatedFields() {
+        CustomerFieldSet fieldSet = CustomerFieldSet.parse(" email, ,firstName,email ");
+
+        assertThat(fieldSet.mongoFields()).containsExactly("email", "firstName");
+    }
+
+    @Test
+    void rejectsUnknownField() {
+        assertThatThrownBy(() -> CustomerFieldSet.parse("email,password"))
+                .isInstanceOf(InvalidQueryParameterException.class)
+                .hasMessage("Unknown customer field: password");
+    }
+
+    @Test
+    void rejectsEmptySelection() {
+        assertThatThrownBy(() -> CustomerFieldSet.parse(" , "))
+                .isInstanceOf(InvalidQueryParameterException.class)
+                .hasMessage("At least one field must be selected");
+    }
+
+    @Test
+    void buildsResponseInRequestedOrder() {
+        ObjectId id = new ObjectId();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        Document document = new Document("_id", id)
+                .append("email", "ana@example.com")
+                .append("createdAt", Date.from(createdAt.atZone(ZoneId.systemDefault()).toInstant()))
+                .append("customerType", List.of("PERSONAL"));
+
+        Map<String, Object> response = CustomerFieldSet.parse("createdAt,id,email,customerType,ruc").toResponse(document);
+
+        assertThat(response).containsExactly(
+                entry("createdAt", createdAt),
+                entry("id", id.toHexString()),
+                entry("email", "ana@example.com"),
+                entry("customerType", List.of("PERSONAL")),
+                entry("ruc", null));
+    }
+}
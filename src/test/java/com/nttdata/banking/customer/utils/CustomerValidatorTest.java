@@ -0,0 +1,156 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.dto.request.CustomerPatchRequestDTO;
+import com.nttdata.banking.customer.dto.request.CustomerRequestDTO;
+import com.nttdata.banking.customer.enums.CustomerType;
+import com.nttdata.banking.customer.enums.DocumentType;
+import com.nttdata.banking.customer.exception.InvalidDocumentException;
+import com.nttdata.banking.customer.models.entity.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class CustomerValidatorTest {
+
+    private final CustomerValidator customerValidator = new CustomerValidator(new DocumentValidator());
+
+    private static CustomerRequestDTO.CustomerRequestDTOBuilder personalRequest() {
+        return CustomerRequestDTO.builder()
+                .customerType(Set.of(CustomerType.PERSONAL))
+                .firstName("Ana")
+                .lastName("Torres")
+                .documentType(DocumentType.DNI)
+                .documentNumber("12345678")
+                .phoneNumber("+51987654321")
+                .email("ana@example.com")
+                .address("Av. Arequipa 123");
+    }
+
+    private static CustomerRequestDTO.CustomerRequestDTOBuilder businessRequest() {
+        return CustomerRequestDTO.builder()
+                .customerType(Set.of(CustomerType.BUSINESS))
+                .companyName("Andes SAC")
+                .ruc("20123456789")
+                .documentType(DocumentType.RUC)
+                .documentNumber("20123456789")
+                .phoneNumber("+5114567890")
+                .email("contacto@andes.pe")
+                .address("Av. Javier Prado 456");
+    }
+
+    @Test
+    void acceptsValidRequests() {
+        assertThatCode(() -> customerValidator.validateCustomerRequest(personalRequest().build())).doesNotThrowAnyException();
+        assertThatCode(() -> customerValidator.validateCustomerRequest(businessRequest().build())).doesNotThrowAnyException();
+    }
+
+    @Test
+    void reportsEveryViolation() {
+        CustomerRequestDTO request = personalRequest()
+                .firstName(" ")
+                .lastName(null)
+                .documentNumber("1234")
+                .build();
+
+        assertThatThrownBy(() -> customerValidator.validateCustomerRequest(request))
+                .isInstanceOfSatisfying(InvalidDocumentException.class, ex -> assertThat(ex.getViolations()).containsExactly(
+                        entry("firstName", "First name is required for personal customers"),
+                        entry("lastName", "Last name is required for personal customers"),
+                        entry("documentNumber", DocumentType.DNI.getFormatMessage())));
+    }
+
+    @Test
+    void requiresCustomerType() {
+        CustomerRequestDTO request = personalRequest().customerType(Set.of()).build();
+
+        assertThatThrownBy(() -> customerValidator.validateCustomerRequest(request))
+                .isInstanceOf(InvalidDocumentException.class)
+                .hasMessage("At least one customer type must be specified");
+    }
+
+    @Test
+    void businessCustomerNeedsCompanyAndValidRuc() {
+        CustomerRequestDTO missing = businessRequest().companyName(null).ruc(null).build();
+        CustomerRequestDTO malformed = businessRequest().ruc("2012345").build();
+
+        assertThatThrownBy(() -> customerValidator.validateCustomerRequest(missing))
+                .isInstanceOfSatisfying(InvalidDocumentException.class,
+                        ex -> assertThat(ex.getViolations()).containsOnlyKeys("companyName", "ruc"));
+        assertThatThrownBy(() -> customerValidator.validateCustomerRequest(malformed))
+                .isInstanceOfSatisfying(InvalidDocumentException.class,
+                        ex -> assertThat(ex.getViolations()).containsExactly(entry("ruc", "RUC must be exactly 11 digits")));
+    }
+
+    @Test
+    void documentNumberIsCheckedWithoutSurroundingWhitespace() {
+        CustomerRequestDTO request = personalRequest().documentNumber(" 12345678 ").build();
+
+        assertThatCode(() -> customerValidator.validateCustomerRequest(request)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsEmptyPatch() {
+        assertThatThrownBy(() -> customerValidator.validatePatchRequest(new CustomerPatchRequestDTO()))
+                .isInstanceOf(InvalidDocumentException.class)
+                .hasMessage("At least one field must be provided");
+    }
+
+    @Test
+    void patchMustUpdateDocumentTypeAndNumberTogether() {
+        CustomerPatchRequestDTO patch = CustomerPatchRequestDTO.builder().documentNumber("87654321").build();
+
+        assertThatThrownBy(() -> customerValidator.validatePatchRequest(patch))
+                .isInstanceOf(InvalidDocumentException.class)
+                .hasMessage("Document type and document number must be updated together");
+    }
+
+    @Test
+    void patchReportsBlankFieldsAndInvalidDocument() {
+        CustomerPatchRequestDTO patch = CustomerPatchRequestDTO.builder()
+                .firstName("  ")
+                .documentType(DocumentType.DNI)
+                .documentNumber("ABC")
+                .build();
+
+        assertThatThrownBy(() -> customerValidator.validatePatchRequest(patch))
+                .isInstanceOfSatisfying(InvalidDocumentException.class, ex -> assertThat(ex.getViolations()).containsExactly(
+                        entry("request", "Provided fields cannot be blank"),
+                        entry("documentNumber", DocumentType.DNI.getFormatMessage())));
+    }
+
+    @Test
+    void acceptsPartialPatch() {
+        CustomerPatchRequestDTO patch = CustomerPatchRequestDTO.builder().phoneNumber("+51911222333").build();
+
+        assertThatCode(() -> customerValidator.validatePatchRequest(patch)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void patchedCustomerMustSatisfyItsNewType() {
+        Customer customer = Customer.builder()
+                .customerType(Set.of(CustomerType.PERSONAL, CustomerType.BUSINESS))
+                .firstName("Ana")
+                .lastName("Torres")
+                .build();
+
+        assertThatThrownBy(() -> customerValidator.validateCustomer(customer))
+                .isInstanceOfSatisfying(InvalidDocumentException.class,
+                        ex -> assertThat(ex.getViolations()).containsOnlyKeys("companyName", "ruc"));
+    }
+
+    @Test
+    void acceptsPatchedCustomerMeetingItsType() {
+        Customer customer = Customer.builder()
+                .customerType(Set.of(CustomerType.BUSINESS))
+                .companyName("Andes SAC")
+                .ruc("20123456789")
+                .build();
+
+        assertThatCode(() -> customerValidator.validateCustomer(customer)).doesNotThrowAnyException();
+    }
+}
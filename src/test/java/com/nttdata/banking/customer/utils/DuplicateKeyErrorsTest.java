@@ -0,0 +1,45 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.exception.DuplicateCustomerException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateKeyErrorsTest {
+
+    private static final String PREFIX = "Customer already exists with ";
+
+    private static DuplicateCustomerException duplicate(String mongoMessage) {
+        return DuplicateKeyErrors.toDuplicateCustomer(mongoMessage, "ana@example.com", "12345678", "20123456789", PREFIX, null);
+    }
+
+    @Test
+    void fieldIsTakenFromTheKey() {
+        assertThat(duplicate("E11000 duplicate key error collection: banking.customers index: email dup key: { email: \"ana@example.com\" }"))
+                .hasMessage(PREFIX + "email: ana@example.com");
+        assertThat(duplicate("E11000 duplicate key error collection: banking.customers index: ruc_1 dup key: { ruc: \"20123456789\" }"))
+                .hasMessage(PREFIX + "RUC: 20123456789");
+    }
+
+    @Test
+    void fieldIsTakenFromTheIndexWhenTheKeyIsNotNamed() {
+        assertThat(duplicate("E11000 duplicate key error collection: banking.customers index: documentNumber_1 dup key: { : \"12345678\" }"))
+                .hasMessage(PREFIX + "document number: 12345678");
+    }
+
+    @Test
+    void unknownIndexNamesEveryField() {
+        assertThat(duplicate("E11000 duplicate key error collection: banking.customers index: _id_ dup key: { _id: ObjectId('65a4f0c2e4b0a1b2c3d4e5f6') }"))
+                .hasMessage(PREFIX + "the same email, document number or RUC");
+        assertThat(duplicate(null)).hasMessage(PREFIX + "the same email, document number or RUC");
+    }
+
+    @Test
+    void fieldMissingFromTheRequestIsNotReported() {
+        DuplicateCustomerException duplicate = DuplicateKeyErrors.toDuplicateCustomer(
+                "E11000 duplicate key error collection: banking.customers index: ruc dup key: { ruc: \"20123456789\" }",
+                "ana@example.com", "12345678", null, PREFIX, null);
+
+        assertThat(duplicate).hasMessage(PREFIX + "the same email, document number or RUC");
+    }
+}
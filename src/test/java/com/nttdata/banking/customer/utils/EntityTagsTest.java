@@ -0,0 +1,87 @@
+package com.nttdata.banking.customer.utils;
+
+import com.nttdata.banking.customer.exception.CustomerPreconditionFailedException;
+import com.nttdata.banking.customer.exception.InvalidQueryParameterException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntityTagsTest {
+
+    private static final String ID = "65a4f0c2e4b0a1b2c3d4e5f6";
+
+    @Test
+    void tagCarriesIdAndVersion() {
+        assertThat(EntityTags.of(ID, 7L)).isEqualTo("\"" + ID + "-7\"");
+    }
+
+    @Test
+    void unversionedCustomerIsVersionZero() {
+        assertThat(EntityTags.of(ID, null)).isEqualTo("\"" + ID + "-0\"");
+    }
+
+    @Test
+    void parsesTagItIssued() {
+        assertThat(EntityTags.parseVersion(EntityTags.of(ID, 7L), ID)).isEqualTo(7L);
+        assertThat(EntityTags.parseVersion(" " + EntityTags.of(ID, 12L) + " ", ID)).isEqualTo(12L);
+    }
+
+    @Test
+    void missingOrWildcardHeaderAcceptsAnyVersion() {
+        assertThat(EntityTags.parseVersion(null, ID)).isNull();
+        assertThat(EntityTags.parseVersion(" ", ID)).isNull();
+        assertThat(EntityTags.parseVersion("*", ID)).isNull();
+    }
+
+    @Test
+    void tagOfAnotherCustomerFailsPrecondition() {
+        String otherCustomerTag = EntityTags.of("65a4f0c2e4b0a1b2c3d4e5f7", 7L);
+
+        assertThatThrownBy(() -> EntityTags.parseVersion(otherCustomerTag, ID))
+                .isInstanceOf(CustomerPreconditionFailedException.class);
+    }
+
+    @Test
+    void weakTagFailsPrecondition() {
+        assertThatThrownBy(() -> EntityTags.parseVersion("W/" + EntityTags.of(ID, 7L), ID))
+                .isInstanceOf(CustomerPreconditionFailedException.class);
+    }
+
+    @Test
+    void tagWithoutCustomerIdFailsPrecondition() {
+        assertThatThrownBy(() -> EntityTags.parseVersion("\"7\"", ID))
+                .isInstanceOf(CustomerPreconditionFailedException.class);
+    }
+
+    @Test
+    void rejectsMalformedTag() {
+        assertThatThrownBy(() -> EntityTags.parseVersion("\"" + ID + "-x\"", ID))
+                .isInstanceOf(InvalidQueryParameterException.class);
+        assertThatThrownBy(() -> EntityTags.parseVersion(ID + "-7", ID))
+                .isInstanceOf(InvalidQueryParameterException.class);
+    }
+
+    @Test
+    void lastModifiedIsLastUpdate() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        LocalDateTime updatedAt = createdAt.plusDays(2);
+
+        assertThat(EntityTags.lastModified(updatedAt, createdAt))
+                .isEqualTo(updatedAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Test
+    void lastModifiedOfCustomerNeverUpdatedIsCreation() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        Date created = Date.from(createdAt.atZone(ZoneId.systemDefault()).toInstant());
+
+        assertThat(EntityTags.lastModified(null, createdAt)).isEqualTo(created.toInstant());
+        assertThat(EntityTags.lastModified((Date) null, created)).isEqualTo(created.toInstant());
+        assertThat(EntityTags.lastModified((LocalDateTime) null, null)).isNull();
+    }
+}
@@ -0,0 +1,120 @@
+package com.nttdata.banking.customer.utils;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final AtomicInteger joins = new AtomicInteger();
+    private final AtomicInteger queries = new AtomicInteger();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(2, joins::incrementAndGet);
+
+    private Mono<String> slowQuery(String value) {
+        return Mono.defer(() -> {
+            queries.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(50)).thenReturn(value);
+        });
+    }
+
+    @Test
+    void concurrentSubscribersShareOneQuery() {
+        Flux<String> results = Flux.merge(
+                singleFlight.execute("key", () -> slowQuery("first")),
+                singleFlight.execute("key", () -> slowQuery("second")));
+
+        StepVerifier.create(results)
+                .expectNext("first", "first")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(queries).hasValue(1);
+        assertThat(joins).hasValue(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void completedQueryIsNotReused() {
+        StepVerifier.create(singleFlight.execute("key", () -> slowQuery("first")))
+                .expectNext("first")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(singleFlight.execute("key", () -> slowQuery("second")))
+                .expectNext("second")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(queries).hasValue(2);
+        assertThat(joins).hasValue(0);
+    }
+
+    @Test
+    void differentKeysRunTheirOwnQuery() {
+        Flux<String> results = Flux.merge(
+                singleFlight.execute("a", () -> slowQuery("a")),
+                singleFlight.execute("b", () -> slowQuery("b")));
+
+        StepVerifier.create(results.collectList())
+                .assertNext(values -> assertThat(values).containsExactlyInAnyOrder("a", "b"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void errorReachesEverySubscriber() {
+        Mono<String> failing = Mono.delay(Duration.ofMillis(50)).then(Mono.error(new IllegalStateException("query failed")));
+        Flux<String> results = Flux.merge(
+                singleFlight.execute("key", () -> failing),
+                singleFlight.execute("key", () -> failing));
+
+        StepVerifier.create(results)
+                .expectErrorMessage("query failed")
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(joins).hasValue(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void queryIsCancelledOnlyWhenLastSubscriberLeaves() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> query = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = singleFlight.execute("key", () -> query).subscribe();
+        Disposable second = singleFlight.execute("key", () -> query).subscribe();
+
+        first.dispose();
+        assertThat(cancelled).isFalse();
+        assertThat(singleFlight.inFlight()).isEqualTo(1);
+
+        second.dispose();
+        assertThat(cancelled).isTrue();
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void keysBeyondLimitAreNotTracked() {
+        Disposable a = singleFlight.execute("a", Mono::never).subscribe();
+        Disposable b = singleFlight.execute("b", Mono::never).subscribe();
+
+        StepVerifier.create(singleFlight.execute("c", () -> slowQuery("c")))
+                .expectNext("c")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(singleFlight.inFlight()).isEqualTo(2);
+        a.dispose();
+        b.dispose();
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,121 @@
+package com.nttdata.banking.customer.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteCoalescerTest {
+
+    private final DistributionSummary batchSizes = DistributionSummary.builder("test.batch.size")
+            .register(new SimpleMeterRegistry());
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+    private WriteCoalescer<Integer, String> coalescer;
+
+    @AfterEach
+    void tearDown() {
+        if (coalescer != null) {
+            coalescer.dispose();
+        }
+    }
+
+    private WriteCoalescer<Integer, String> coalescer(int maxBatchSize, Duration window,
+                                                      Function<List<Integer>, Mono<List<WriteCoalescer.Outcome<String>>>> writer) {
+        coalescer = new WriteCoalescer<>(maxBatchSize, window, 1, items -> {
+            batches.add(items);
+            return writer.apply(items);
+        }, batchSizes);
+        return coalescer;
+    }
+
+    private static Mono<List<WriteCoalescer.Outcome<String>>> succeed(List<Integer> items) {
+        return Mono.just(items.stream().map(item -> WriteCoalescer.Outcome.success("stored-" + item)).toList());
+    }
+
+    @Test
+    void fullBatchIsWrittenAtOnce() {
+        WriteCoalescer<Integer, String> coalescer = coalescer(3, Duration.ofHours(1), WriteCoalescerTest::succeed);
+
+        StepVerifier.create(Flux.merge(coalescer.submit(1), coalescer.submit(2), coalescer.submit(3)).collectList())
+                .assertNext(results -> assertThat(results).containsExactlyInAnyOrder("stored-1", "stored-2", "stored-3"))
+                .verifyComplete();
+
+        assertThat(batches).hasSize(1);
+        assertThat(batchSizes.count()).isEqualTo(1);
+        assertThat(batchSizes.totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void partialBatchIsWrittenWhenWindowEnds() {
+        WriteCoalescer<Integer, String> coalescer = coalescer(10, Duration.ofMillis(50), WriteCoalescerTest::succeed);
+
+        StepVerifier.create(Flux.merge(coalescer.submit(1), coalescer.submit(2)).collectList())
+                .assertNext(results -> assertThat(results).containsExactlyInAnyOrder("stored-1", "stored-2"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(batches).containsExactly(List.of(1, 2));
+    }
+
+    @Test
+    void eachCallerGetsTheOutcomeOfItsOwnItem() {
+        WriteCoalescer<Integer, String> coalescer = coalescer(2, Duration.ofHours(1), items -> Mono.just(items.stream()
+                .map(item -> item % 2 == 0
+                        ? WriteCoalescer.Outcome.<String>failure(new IllegalArgumentException("rejected-" + item))
+                        : WriteCoalescer.Outcome.success("stored-" + item))
+                .toList()));
+
+        Flux<String> results = Flux.merge(
+                coalescer.submit(1).onErrorResume(error -> Mono.just(error.getMessage())),
+                coalescer.submit(2).onErrorResume(error -> Mono.just(error.getMessage())));
+
+        StepVerifier.create(results.collectList())
+                .assertNext(outcomes -> assertThat(outcomes).containsExactlyInAnyOrder("stored-1", "rejected-2"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void failedBatchFailsEveryCaller() {
+        WriteCoalescer<Integer, String> coalescer = coalescer(2, Duration.ofHours(1),
+                items -> Mono.error(new IllegalStateException("bulk write failed")));
+
+        StepVerifier.create(Flux.merge(coalescer.submit(1), coalescer.submit(2)))
+                .expectErrorMessage("bulk write failed")
+                .verify(Duration.ofSeconds(5));
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void missingOutcomesFailTheBatch() {
+        WriteCoalescer<Integer, String> coalescer = coalescer(2, Duration.ofHours(1),
+                items -> Mono.just(List.of(WriteCoalescer.Outcome.success("only-one"))));
+
+        StepVerifier.create(Flux.merge(coalescer.submit(1), coalescer.submit(2)))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void disposedCoalescerRefusesItems() {
+        WriteCoalescer<Integer, String> coalescer = coalescer(2, Duration.ofHours(1), WriteCoalescerTest::succeed);
+
+        coalescer.dispose();
+
+        assertThat(coalescer.isDisposed()).isTrue();
+        StepVerifier.create(coalescer.submit(1))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(batches).isEmpty();
+    }
+}
@@ -0,0 +1,100 @@
+package com.nttdata.banking.customer.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimiterTest {
+
+    private static final long THRESHOLD_NANOS = Duration.ofMillis(100).toNanos();
+    private static final long FAST_NANOS = THRESHOLD_NANOS / 2;
+    private static final long SLOW_NANOS = THRESHOLD_NANOS * 2;
+
+    private static AimdLimiter limiter(int initialLimit) {
+        return new AimdLimiter(initialLimit, 2, 20, Duration.ofNanos(THRESHOLD_NANOS), 0.5);
+    }
+
+    @Test
+    void refusesRequestsOverLimit() {
+        AimdLimiter limiter = limiter(2);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.cancel();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void slowRequestDecreasesLimit() {
+        AimdLimiter limiter = limiter(10);
+        limiter.tryAcquire();
+
+        limiter.release(0, SLOW_NANOS, false);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void failedRequestDecreasesLimit() {
+        AimdLimiter limiter = limiter(10);
+        limiter.tryAcquire();
+
+        limiter.release(0, FAST_NANOS, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void requestsStartedBeforeDecreaseDoNotDecreaseAgain() {
+        AimdLimiter limiter = limiter(16);
+        for (int i = 0; i < 8; i++) {
+            limiter.tryAcquire();
+        }
+
+        for (int i = 0; i < 8; i++) {
+            limiter.release(0, SLOW_NANOS + i, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(8);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW_NANOS * 2, SLOW_NANOS * 4, false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void limitNeverDropsBelowMinimum() {
+        AimdLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW_NANOS * i, SLOW_NANOS * (i + 1), true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void fastRequestsRaiseLimitOnlyWhileItIsUsed() {
+        AimdLimiter limiter = limiter(4);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(0, FAST_NANOS, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 1000; i++) {
+            while (limiter.tryAcquire()) {
+                // Saturate the limit
+            }
+            limiter.release(0, FAST_NANOS, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+}